@@ -0,0 +1,115 @@
+package com.app.springboot_jpa_relationship.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.entities.Student;
+
+/*
+ * Operaciones de los Set de las asociaciones (Client.addInvoice/removeInvoice,
+ * Student.addCourse/removeCourse, contains) sobre colecciones de 10 a 100.000
+ * elementos, comparando la identidad actual de las entidades con:
+ *
+ * - idKey: un Set<Long> con los ids, el límite inferior.
+ * - hashCode constante por clase: ver ClassHashSetBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssociationSetBenchmark {
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    private int size;
+
+    private Client client;
+    private Invoice probeInvoice;
+    private Invoice extraInvoice;
+
+    private Course course;
+    private Student extraStudent;
+    private Set<Student> students;
+    private Student probeStudent;
+
+    private Set<Long> ids;
+    private Long probeId;
+
+    @Setup
+    public void setUp() {
+        client = new Client("Fran", "Moras");
+        for (long i = 0; i < size; i++) {
+            Invoice invoice = new Invoice("Factura " + i, 1000L + i);
+            invoice.setId(i);
+            client.addInvoice(invoice);
+        }
+        long middle = size / 2;
+        probeInvoice = new Invoice("Factura " + middle, 1000L + middle);
+        probeInvoice.setId(middle);
+        extraInvoice = new Invoice("Factura extra", 1L);
+        extraInvoice.setId((long) size);
+
+        course = new Course("Java", "Pepito");
+        course.setId(1L);
+        students = new HashSet<>();
+        ids = new HashSet<>();
+        for (long i = 0; i < size; i++) {
+            Student student = new Student("Nombre " + i, "Apellido " + i);
+            student.setId(i);
+            student.addCourse(course);
+            students.add(student);
+            ids.add(i);
+        }
+        probeStudent = new Student("Nombre " + middle, "Apellido " + middle);
+        probeStudent.setId(middle);
+        extraStudent = new Student("Extra", "Extra");
+        extraStudent.setId((long) size);
+        probeId = middle;
+    }
+
+    @Benchmark
+    public boolean invoiceContains() {
+        return client.getInvoices().contains(probeInvoice);
+    }
+
+    @Benchmark
+    public Client clientAddRemoveInvoice() {
+        client.addInvoice(extraInvoice);
+        client.removeInvoice(extraInvoice);
+        return client;
+    }
+
+    @Benchmark
+    public Student studentAddRemoveCourse() {
+        extraStudent.addCourse(course);
+        extraStudent.removeCourse(course);
+        return extraStudent;
+    }
+
+    @Benchmark
+    public boolean studentContains() {
+        return students.contains(probeStudent);
+    }
+
+    @Benchmark
+    public boolean idKeyContains() {
+        return ids.contains(probeId);
+    }
+}
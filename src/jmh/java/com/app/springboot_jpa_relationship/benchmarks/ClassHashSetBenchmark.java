@@ -0,0 +1,79 @@
+package com.app.springboot_jpa_relationship.benchmarks;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Estrategia de identidad alternativa: hashCode constante por clase y equals
+ * por id. Es estable antes y después de persistir (el id cambia, el hash no),
+ * pero todos los elementos caen en el mismo bucket y contains es O(n).
+ *
+ * Construir el Set es O(n^2), por eso los tamaños llegan a 10.000 y no a
+ * 100.000 como en AssociationSetBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassHashSetBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    private int size;
+
+    private Set<ClassHashStudent> students;
+    private ClassHashStudent probe;
+
+    @Setup
+    public void setUp() {
+        students = new HashSet<>();
+        for (long i = 0; i < size; i++) {
+            students.add(new ClassHashStudent(i));
+        }
+        probe = new ClassHashStudent((long) size / 2);
+    }
+
+    @Benchmark
+    public boolean classHashContains() {
+        return students.contains(probe);
+    }
+
+    private static final class ClassHashStudent {
+
+        private final Long id;
+
+        ClassHashStudent(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof ClassHashStudent)) {
+                return false;
+            }
+            return id != null && Objects.equals(id, ((ClassHashStudent) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.springboot_jpa_relationship.benchmarks;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.entities.Student;
+
+/*
+ * Costo de hashCode/equals de las entidades tal como están hoy y de
+ * estrategias alternativas de identidad aplicadas a los mismos datos:
+ *
+ * - objectsHash: Objects.hash(id, name, lastname), reserva un arreglo varargs.
+ * - manualHash: el mismo cálculo con 31 * result sin arreglo.
+ * - idOnlyHash: solo el id, como Address.
+ * - classHash: getClass().hashCode(), constante por entidad; es la opción
+ *   estable cuando el id se asigna al persistir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityIdentityBenchmark {
+
+    private Invoice invoice;
+    private Invoice sameInvoice;
+    private Student student;
+    private Student sameStudent;
+    private Course course;
+
+    private Long id;
+    private String name;
+    private String lastname;
+
+    @Setup
+    public void setUp() {
+        invoice = new Invoice("Compras de la casa", 5000L);
+        invoice.setId(42L);
+        sameInvoice = new Invoice("Compras de la casa", 5000L);
+        sameInvoice.setId(42L);
+
+        student = new Student("Lionel", "Messi");
+        student.setId(7L);
+        sameStudent = new Student("Lionel", "Messi");
+        sameStudent.setId(7L);
+
+        course = new Course("Java", "Pepito");
+        course.setId(3L);
+
+        id = student.getId();
+        name = student.getName();
+        lastname = student.getLastname();
+    }
+
+    @Benchmark
+    public int invoiceHashCode() {
+        return invoice.hashCode();
+    }
+
+    @Benchmark
+    public boolean invoiceEquals() {
+        return invoice.equals(sameInvoice);
+    }
+
+    @Benchmark
+    public int studentHashCode() {
+        return student.hashCode();
+    }
+
+    @Benchmark
+    public boolean studentEquals() {
+        return student.equals(sameStudent);
+    }
+
+    @Benchmark
+    public int courseHashCode() {
+        return course.hashCode();
+    }
+
+    @Benchmark
+    public int objectsHash() {
+        return Objects.hash(id, name, lastname);
+    }
+
+    @Benchmark
+    public int manualHash() {
+        int result = 1;
+        result = 31 * result + (id == null ? 0 : id.hashCode());
+        result = 31 * result + (name == null ? 0 : name.hashCode());
+        result = 31 * result + (lastname == null ? 0 : lastname.hashCode());
+        return result;
+    }
+
+    @Benchmark
+    public int idOnlyHash() {
+        return id == null ? 0 : id.hashCode();
+    }
+
+    @Benchmark
+    public int classHash() {
+        return student.getClass().hashCode();
+    }
+}
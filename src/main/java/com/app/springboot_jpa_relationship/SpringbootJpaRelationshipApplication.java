@@ -1,16 +1,27 @@
 package com.app.springboot_jpa_relationship;
 
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.app.springboot_jpa_relationship.benchmark.LoadGenerator;
+import com.app.springboot_jpa_relationship.benchmark.ReactiveReadBenchmark;
+import com.app.springboot_jpa_relationship.benchmark.ScenarioBenchmark;
+import com.app.springboot_jpa_relationship.config.SqlStatementCounter;
 import com.app.springboot_jpa_relationship.entities.Address;
 import com.app.springboot_jpa_relationship.entities.Client;
 import com.app.springboot_jpa_relationship.entities.ClientDetails;
@@ -20,10 +31,21 @@ import com.app.springboot_jpa_relationship.entities.Student;
 import com.app.springboot_jpa_relationship.repositories.ClientDetailsRepository;
 import com.app.springboot_jpa_relationship.repositories.ClientRepository;
 import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+import com.app.springboot_jpa_relationship.repositories.FetchPlanJpaRepository;
 import com.app.springboot_jpa_relationship.repositories.InvoiceRepository;
 import com.app.springboot_jpa_relationship.repositories.StudentRepository;
-
-@SpringBootApplication
+import com.app.springboot_jpa_relationship.services.ClientAggregateService;
+import com.app.springboot_jpa_relationship.services.InvoiceImportService;
+import com.app.springboot_jpa_relationship.services.LoyaltyPointsAccumulator;
+
+/*
+ * R2DBC solo se usa en ClientReadModel, que crea su propio pool. La
+ * configuración automática de R2DBC se excluye: su ConnectionFactory (con
+ * r2dbc-h2 en el classpath se crea aunque no haya URL) haría que Spring Boot
+ * no configure el DataSource de JDBC.
+ */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableJpaRepositories(repositoryBaseClass = FetchPlanJpaRepository.class)
 public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 
 	@Autowired
@@ -40,12 +62,64 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 	@Autowired
 	private CourseRepository courseRepository;
 
+	@Autowired
+	private InvoiceImportService invoiceImportService;
+
+	@Autowired
+	private ClientAggregateService clientAggregateService;
+
+	@Autowired
+	private LoyaltyPointsAccumulator loyaltyPointsAccumulator;
+
+	@Autowired
+	private ScenarioBenchmark scenarioBenchmark;
+
+	@Autowired
+	private LoadGenerator loadGenerator;
+
+	@Autowired
+	private ObjectProvider<ReactiveReadBenchmark> reactiveReadBenchmark;
+
+	@Autowired
+	private SqlStatementCounter statementCounter;
+
+	@Value("${app.jdbc.batch-size}")
+	private int batchSize;
+
+	@Value("${app.benchmark.enabled:false}")
+	private boolean benchmarkEnabled;
+
+	@Value("${app.load.enabled:false}")
+	private boolean loadEnabled;
+
+	/* Requiere app.reactive.enabled=true (perfil "reactive") */
+	@Value("${app.reactive-bench.enabled:false}")
+	private boolean reactiveBenchEnabled;
+
+	@Value("${app.runner.enabled:true}")
+	private boolean runnerEnabled;
+
 	public static void main(String[] args) {
 		SpringApplication.run(SpringbootJpaRelationshipApplication.class, args);
 	}
 
 	@Override
 	public void run(String... args) throws Exception {
+		if (benchmarkEnabled) {
+			scenarioBenchmark.run(scenarios());
+			return;
+		}
+		if (loadEnabled) {
+			loadGenerator.run();
+			return;
+		}
+		if (reactiveBenchEnabled) {
+			reactiveReadBenchmark.getObject().run();
+			return;
+		}
+		if (!runnerEnabled) {
+			return;
+		}
 		// manyToOneFindByIdClient();
 		// oneToManyFindById();
 		// removeAddress();
@@ -60,9 +134,45 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 		// oneToOneBidirectionalFindById();
 		// manyToManyRemoveCourseUnidirectional();
 		// manyToManyRemoveBidirectional();
+		// insertClientGraphs(1000);
+		// importInvoices("invoices.csv");
+		// clientAggregateBenchmark(500, 10, 50);
+		// lazyToOneStatements(100, 10);
+		// loyaltyPointsBurst(10_000);
 		manyToManyRemoveBidirectionalFind();
 	}
 
+	/*
+	 * Escenarios que se pueden medir con ScenarioBenchmark (perfil "bench"). Son
+	 * los mismos métodos que se activan a mano en run().
+	 */
+	public Map<String, Runnable> scenarios() {
+		Map<String, Runnable> scenarios = new LinkedHashMap<>();
+		scenarios.put("manyToOne", this::manyToOne);
+		scenarios.put("manyToOneFindByIdClient", this::manyToOneFindByIdClient);
+		scenarios.put("oneToMany", this::oneToMany);
+		scenarios.put("oneToManyFindById", this::oneToManyFindById);
+		scenarios.put("removeAddress", this::removeAddress);
+		scenarios.put("removeAddressFindById", this::removeAddressFindById);
+		scenarios.put("oneToManyInvoiceBidirectional", this::oneToManyInvoiceBidirectional);
+		scenarios.put("oneToManyInvoiceBidirectionalFindById", this::oneToManyInvoiceBidirectionalFindById);
+		scenarios.put("removeInvoiceBidirectional", this::removeInvoiceBidirectional);
+		scenarios.put("removeInvoiceBidirectionalFindById", this::removeInvoiceBidirectionalFindById);
+		scenarios.put("oneToOne", this::oneToOne);
+		scenarios.put("oneToOneFindById", this::oneToOneFindById);
+		scenarios.put("oneToOneBidirectional", this::oneToOneBidirectional);
+		scenarios.put("oneToOneBidirectionalFindById", this::oneToOneBidirectionalFindById);
+		scenarios.put("manyToMany", this::manyToMany);
+		scenarios.put("manyToManyFindById", this::manyToManyFindById);
+		scenarios.put("manyToManyRemove", this::manyToManyRemove);
+		scenarios.put("manyToManyRemoveFind", this::manyToManyRemoveFind);
+		scenarios.put("manyToManyBidirectional", this::manyToManyBidirectional);
+		scenarios.put("manyToManyRemoveBidirectional", this::manyToManyRemoveBidirectional);
+		scenarios.put("manyToManyRemoveBidirectionalFind", this::manyToManyRemoveBidirectionalFind);
+		scenarios.put("manyToManyRemoveCourseUnidirectional", this::manyToManyRemoveCourseUnidirectional);
+		return scenarios;
+	}
+
 	@Transactional
 	public void manyToManyBidirectional() {
 		Student student1 = new Student("Jano", "Pura");
@@ -98,9 +208,9 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 			System.out.println(student + "\n");
 		});
 
-		Optional<Student> studentOptionalDB = studentRepository.findOneWithCourse(3L);
+		Optional<Student> studentOptionalDB = studentRepository.findOneWithCourse(student1.getId());
 		studentOptionalDB.ifPresentOrElse(studentDB -> {
-			Optional<Course> courseOptionalDb = courseRepository.findOneWithStudents(2L);
+			Optional<Course> courseOptionalDb = courseRepository.findOneWithStudents(course2.getId());
 			courseOptionalDb.ifPresentOrElse(courseDB -> {
 				studentDB.removeCourse(courseDB);
 				Student updateStudent = studentRepository.save(studentDB);
@@ -142,7 +252,7 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 
 		Optional<Student> studentOptionalDB = studentRepository.findOneWithCourse(1L);
 		studentOptionalDB.ifPresentOrElse(studentDB -> {
-			Optional<Course> courseOptionalDb = courseRepository.findOneWithStudents(2L);
+			Optional<Course> courseOptionalDb = courseRepository.findOneWithStudents(course2.getId());
 			courseOptionalDb.ifPresentOrElse(courseDB -> {
 				studentDB.removeCourse(courseDB);
 				Student updateStudent = studentRepository.save(studentDB);
@@ -245,7 +355,7 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 
 		Optional<Student> studentOptionalDB = studentRepository.findOneWithCourse(1L);
 		studentOptionalDB.ifPresentOrElse(studentDB -> {
-			Optional<Course> courseOptionalDb = courseRepository.findById(2L);
+			Optional<Course> courseOptionalDb = courseRepository.findById(course2.getId());
 			courseOptionalDb.ifPresentOrElse(courseDB -> {
 				studentDB.getCourses().remove(courseDB);
 				Student updateStudent = studentRepository.save(studentDB);
@@ -270,9 +380,9 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 			System.out.println(student + "\n");
 		});
 
-		Optional<Student> studentOptionalDB = studentRepository.findOneWithCourse(3L);
+		Optional<Student> studentOptionalDB = studentRepository.findOneWithCourse(student1.getId());
 		studentOptionalDB.ifPresentOrElse(studentDB -> {
-			Optional<Course> courseOptionalDb = courseRepository.findById(2L);
+			Optional<Course> courseOptionalDb = courseRepository.findById(course2.getId());
 			courseOptionalDb.ifPresentOrElse(courseDB -> {
 				studentDB.getCourses().remove(courseDB);
 				Student updateStudent = studentRepository.save(studentDB);
@@ -306,7 +416,7 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 			System.out.println(student + "\n");
 		});
 
-		Optional<Course> courseOptionalDB = courseRepository.findById(2L);
+		Optional<Course> courseOptionalDB = courseRepository.findById(course2.getId());
 		courseOptionalDB.ifPresent(courseRepository::deleteCourseAndRelationships);
 
 	}
@@ -409,7 +519,11 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 
 		Optional<Client> optionalCient2 = clientRepository.findOne(1L);
 		optionalCient2.ifPresentOrElse(client -> {
-			Optional<Invoice> invoiceOptional = invoiceRepository.findById(2L);
+			// save hace merge del cliente ya cargado: las facturas guardadas son
+			// copias de invoice1 e invoice2, así que se buscan entre las del cliente
+			Optional<Invoice> invoiceOptional = client.getInvoices().stream()
+					.filter(invoice -> invoice.getDescription().equals("Compras de oficina"))
+					.findFirst();
 			invoiceOptional.ifPresentOrElse(invoice -> {
 				client.removeInvoice(invoice);
 				Client updateCLient = clientRepository.save(client);
@@ -421,11 +535,12 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 
 	@Transactional
 	public void removeInvoiceBidirectional() {
-		Optional<Client> optionalClient = Optional.of(new Client("Fran", "Moras"));
-		optionalClient.ifPresentOrElse(client -> {
-			Invoice invoice1 = new Invoice("Compras de la casa", 5000L);
-			Invoice invoice2 = new Invoice("Compras de oficina", 8000L);
+		Client newClient = new Client("Fran", "Moras");
+		Invoice invoice1 = new Invoice("Compras de la casa", 5000L);
+		Invoice invoice2 = new Invoice("Compras de oficina", 8000L);
 
+		Optional<Client> optionalClient = Optional.of(newClient);
+		optionalClient.ifPresentOrElse(client -> {
 			client.addInvoice(invoice1).addInvoice(invoice2);
 
 			Client clientDB = clientRepository.save(client);
@@ -435,9 +550,9 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 			System.out.println("Cliente no encontrado");
 		});
 
-		Optional<Client> optionalCient2 = clientRepository.findOne(3L);
+		Optional<Client> optionalCient2 = clientRepository.findOne(newClient.getId());
 		optionalCient2.ifPresentOrElse(client -> {
-			Optional<Invoice> invoiceOptional = invoiceRepository.findById(2L);
+			Optional<Invoice> invoiceOptional = invoiceRepository.findById(invoice2.getId());
 			invoiceOptional.ifPresentOrElse(invoice -> {
 				client.removeInvoice(invoice);
 				Client updateCLient = clientRepository.save(client);
@@ -522,8 +637,9 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 
 		System.out.println("Cliente guardado: " + client);
 
-		// Se busca el cliente en la base de datos por su ID
-		Optional<Client> optionalClient = clientRepository.findById(3L);
+		// Se busca el cliente en la base de datos por el ID que se le asignó al
+		// guardarlo
+		Optional<Client> optionalClient = clientRepository.findById(client.getId());
 		optionalClient.ifPresent(c -> {
 			// Eliminación de la dirección de la lista de direcciones del cliente
 			// Esto solo elimina la dirección de la lista en la memoria, no en la base de
@@ -605,4 +721,151 @@ public class SpringbootJpaRelationshipApplication implements CommandLineRunner {
 		}
 	}
 
+	/*
+	 * Mide las inserciones por segundo al persistir grafos como los de oneToMany()
+	 * y oneToManyInvoiceBidirectional(): un cliente con dos direcciones (y sus
+	 * filas en tbl_clientes_to_direcciones) y dos facturas. Las filas se cuentan
+	 * a partir del grafo guardado, ya que Address compara solo por id y dos
+	 * direcciones nuevas colapsan en el Set.
+	 *
+	 * Para comparar antes/después se ejecuta dos veces cambiando
+	 * app.jdbc.batch-size: con 1 cada fila es un viaje a la base de datos (el
+	 * comportamiento que teníamos con IDENTITY), con 50 los INSERT se agrupan.
+	 */
+	public void insertClientGraphs(int clients) {
+		long rows = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < clients; i++) {
+			Client client = new Client("Fran", "Moras");
+			client.getAddresses().add(new Address("Constitucion", 211));
+			client.getAddresses().add(new Address("Revolucion", 127));
+			client.addInvoice(new Invoice("Compras de la casa", 5000L))
+					.addInvoice(new Invoice("Compras de oficina", 8000L));
+			clientRepository.save(client);
+			rows += 1 + 2 * client.getAddresses().size() + client.getInvoices().size();
+		}
+		long elapsed = System.nanoTime() - start;
+		double seconds = elapsed / 1_000_000_000.0;
+		System.out.printf("batch_size=%d clientes=%d filas=%d tiempo=%.3fs inserciones/s=%.0f%n",
+				batchSize, clients, rows, seconds, rows / seconds);
+	}
+
+	/*
+	 * Importa facturas de un archivo CSV o JSONL para clientes ya existentes.
+	 * Imprime el progreso y el rendimiento al terminar cada bloque.
+	 */
+	public void importInvoices(String file) {
+		invoiceImportService.importFile(Path.of(file), System.out::println);
+	}
+
+	/*
+	 * Compara findOne (un solo join fetch, producto cartesiano) con
+	 * findOneAggregate (una consulta por asociación) y con
+	 * ClientAggregateService.findClientView (las mismas consultas en paralelo)
+	 * para un cliente con el número de facturas y direcciones indicado.
+	 *
+	 * Las direcciones se agregan de una en una y se guarda el cliente cada vez:
+	 * Address compara solo por id y dos direcciones nuevas colapsan en el Set.
+	 */
+	public void clientAggregateBenchmark(int invoices, int addresses, int iterations) {
+		Client client = new Client("Fran", "Moras");
+		for (int i = 0; i < invoices; i++) {
+			client.addInvoice(new Invoice("Factura " + i, 1000L + i));
+		}
+		client.setClientDetails(new ClientDetails(true, 5000));
+		client = clientRepository.save(client);
+		for (int i = 0; i < addresses; i++) {
+			client.getAddresses().add(new Address("Calle " + i, i));
+			client = clientRepository.save(client);
+		}
+		Long id = client.getId();
+
+		long cartesianRows = (long) Math.max(1, invoices) * Math.max(1, addresses);
+		long splitRows = 1L + invoices + addresses;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			clientRepository.findOne(id).orElseThrow();
+		}
+		double joinMillis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+		start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			clientRepository.findOneAggregate(id).orElseThrow();
+		}
+		double aggregateMillis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+		start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			clientAggregateService.findClientView(id).orElseThrow();
+		}
+		double parallelMillis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+		System.out.printf("findOne: %d filas, %.3f ms/carga%n", cartesianRows, joinMillis);
+		System.out.printf("findOneAggregate: %d filas, %.3f ms/carga%n", splitRows, aggregateMillis);
+		System.out.printf("findClientView: %d filas, %.3f ms/carga%n", splitRows, parallelMillis);
+	}
+
+	/*
+	 * Cuenta las sentencias de cargar todas las facturas y todos los clientes.
+	 * Sin instrumentar las clases, findAll de facturas ejecutaba 1 + 2 x clientes
+	 * sentencias (el cliente EAGER de cada factura y los detalles de cada
+	 * cliente) y findAll de clientes 1 + clientes (los detalles). Con la carga
+	 * perezosa de los to-one ambas son una sola sentencia.
+	 */
+	public void lazyToOneStatements(int clients, int invoicesPerClient) {
+		for (int i = 0; i < clients; i++) {
+			Client client = new Client("Fran", "Moras");
+			for (int j = 0; j < invoicesPerClient; j++) {
+				client.addInvoice(new Invoice("Factura " + j, 1000L + j));
+			}
+			client.setClientDetails(new ClientDetails(true, 5000));
+			clientRepository.save(client);
+		}
+
+		statementCounter.reset();
+		invoiceRepository.findAll();
+		long invoiceStatements = statementCounter.snapshot().total();
+
+		statementCounter.reset();
+		clientRepository.findAll();
+		long clientStatements = statementCounter.snapshot().total();
+
+		System.out.printf("findAll facturas: %d sentencias%n", invoiceStatements);
+		System.out.printf("findAll clientes: %d sentencias%n", clientStatements);
+	}
+
+	/*
+	 * Suma un punto a un mismo cliente events veces: primero cargando
+	 * ClientDetails, cambiando points y guardándolo por cada evento (un UPDATE
+	 * por evento sobre la misma fila) y después con LoyaltyPointsAccumulator,
+	 * que lo escribe todo en un solo UPDATE al vaciar.
+	 */
+	public void loyaltyPointsBurst(int events) {
+		Client client = new Client("Fran", "Moras");
+		client.setClientDetails(new ClientDetails(false, 0));
+		client = clientRepository.save(client);
+		Long clientId = client.getId();
+		Long detailsId = client.getClientDetails().getId();
+
+		statementCounter.reset();
+		long start = System.nanoTime();
+		for (int i = 0; i < events; i++) {
+			ClientDetails details = clientDetailsRepository.findById(detailsId).orElseThrow();
+			details.setPoints(details.getPoints() + 1);
+			clientDetailsRepository.save(details);
+		}
+		double perEventMillis = (System.nanoTime() - start) / 1_000_000.0;
+		long perEventUpdates = statementCounter.snapshot().updates();
+
+		start = System.nanoTime();
+		for (int i = 0; i < events; i++) {
+			loyaltyPointsAccumulator.add(clientId, 1);
+		}
+		int coalescedUpdates = loyaltyPointsAccumulator.flush();
+		double coalescedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+		System.out.printf("Por evento: %d UPDATE, %.3f ms%n", perEventUpdates, perEventMillis);
+		System.out.printf("Acumulado: %d UPDATE, %.3f ms%n", coalescedUpdates, coalescedMillis);
+	}
 }
@@ -0,0 +1,278 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Generador de carga (perfil "load"): ejecuta una mezcla ponderada de las
+ * operaciones de LoadWorkload en hilos virtuales durante un tiempo fijo.
+ *
+ * - Con app.load.rate > 0 (modelo abierto) se inicia una operación cada
+ *   1/rate segundos, con un máximo de app.load.concurrency en curso. La latencia
+ *   se mide desde el momento en que la operación debía empezar, así el tiempo
+ *   esperando un hueco libre también cuenta (sin omisión coordinada).
+ * - Con app.load.rate = 0 (modelo cerrado) app.load.concurrency hilos
+ *   ejecutan operaciones una tras otra sin pausa.
+ *
+ * Las latencias se registran en histogramas HdrHistogram (microsegundos) y la
+ * espera por conexiones del pool sale del timer de HikariCP en Micrometer. El
+ * resultado se escribe en JSON.
+ */
+@Component
+public class LoadGenerator {
+
+    private final LoadWorkload workload;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Value("${app.load.rate:0}")
+    private double rate;
+
+    @Value("${app.load.concurrency:2000}")
+    private int concurrency;
+
+    @Value("${app.load.duration:60s}")
+    private Duration duration;
+
+    @Value("${app.load.warmup:10s}")
+    private Duration warmup;
+
+    /* nombre:peso, por ejemplo findClientAggregate:60 */
+    @Value("${app.load.mix:}")
+    private List<String> mix;
+
+    @Value("${app.load.output:target/load-test.json}")
+    private Path output;
+
+    public LoadGenerator(LoadWorkload workload, MeterRegistry meterRegistry) {
+        this.workload = workload;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public LoadResult run() {
+        workload.seed();
+        Mix operations = Mix.of(workload.operations(), mix);
+
+        execute(operations, warmup);
+        operations.reset();
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        long acquisitionsBefore = acquire == null ? 0 : acquire.count();
+        double waitBefore = acquire == null ? 0 : acquire.totalTime(TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        execute(operations, duration);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long acquisitions = acquire == null ? 0 : acquire.count() - acquisitionsBefore;
+        double wait = acquire == null ? 0 : acquire.totalTime(TimeUnit.MILLISECONDS) - waitBefore;
+        LoadResult.PoolWait poolWait = new LoadResult.PoolWait(acquisitions,
+                acquisitions == 0 ? 0 : wait / acquisitions,
+                acquire == null ? 0 : acquire.max(TimeUnit.MILLISECONDS));
+
+        LoadResult result = operations.result(rate, concurrency, seconds, poolWait);
+        write(result);
+        return result;
+    }
+
+    private void execute(Mix operations, Duration length) {
+        long end = System.nanoTime() + length.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (rate > 0) {
+                Semaphore permits = new Semaphore(concurrency);
+                long interval = (long) (1_000_000_000L / rate);
+                long start = System.nanoTime();
+                for (long i = 0;; i++) {
+                    long intended = start + i * interval;
+                    if (intended >= end) {
+                        break;
+                    }
+                    LockSupport.parkNanos(intended - System.nanoTime());
+                    permits.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            operations.next().execute(intended);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } else {
+                for (int i = 0; i < concurrency; i++) {
+                    executor.execute(() -> {
+                        while (System.nanoTime() < end) {
+                            operations.next().execute(System.nanoTime());
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private void write(LoadResult result) {
+        try {
+            Path parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writeValue(output.toFile(), result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println("Resultados de la prueba de carga en " + output.toAbsolutePath());
+    }
+
+    static ScenarioResult.Latency latency(Histogram histogram) {
+        return new ScenarioResult.Latency(millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getMaxValue()), histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /*
+     * Operaciones con su peso acumulado. Sin mezcla configurada todas pesan 1.
+     */
+    private record Mix(List<WeightedOperation> operations, int totalWeight) {
+
+        static Mix of(Map<String, Runnable> available, List<String> mix) {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            if (mix.isEmpty()) {
+                available.keySet().forEach(name -> weights.put(name, 1));
+            }
+            for (String entry : mix) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2 || !available.containsKey(parts[0])) {
+                    throw new IllegalArgumentException("Entrada de app.load.mix inválida: " + entry
+                            + " (operaciones: " + available.keySet() + ")");
+                }
+                weights.put(parts[0], Integer.valueOf(parts[1]));
+            }
+            int total = 0;
+            List<WeightedOperation> operations = new ArrayList<>();
+            for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+                if (weight.getValue() > 0) {
+                    total += weight.getValue();
+                    operations.add(new WeightedOperation(weight.getKey(), available.get(weight.getKey()), total));
+                }
+            }
+            return new Mix(List.copyOf(operations), total);
+        }
+
+        WeightedOperation next() {
+            int value = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (WeightedOperation operation : operations) {
+                if (value < operation.cumulativeWeight()) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        void reset() {
+            operations.forEach(WeightedOperation::reset);
+        }
+
+        LoadResult result(double rate, int concurrency, double seconds, LoadResult.PoolWait poolWait) {
+            Histogram all = new Histogram(3);
+            long errors = 0;
+            Map<String, LoadResult.Operation> byOperation = new LinkedHashMap<>();
+            for (WeightedOperation operation : operations) {
+                Histogram histogram = operation.latencies().copy();
+                all.add(histogram);
+                errors += operation.errors().sum();
+                byOperation.put(operation.name(), new LoadResult.Operation(histogram.getTotalCount(),
+                        operation.errors().sum(), operation.lastError(), latency(histogram)));
+            }
+            return new LoadResult(rate, concurrency, seconds, all.getTotalCount(), errors,
+                    all.getTotalCount() / seconds, latency(all), byOperation, poolWait);
+        }
+    }
+
+    private static final class WeightedOperation {
+
+        private final String name;
+
+        private final Runnable operation;
+
+        private final int cumulativeWeight;
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(3);
+
+        private final LongAdder errors = new LongAdder();
+
+        private volatile String lastError;
+
+        WeightedOperation(String name, Runnable operation, int cumulativeWeight) {
+            this.name = name;
+            this.operation = operation;
+            this.cumulativeWeight = cumulativeWeight;
+        }
+
+        /* start es el instante (System.nanoTime) desde el que se mide la latencia */
+        void execute(long start) {
+            try {
+                operation.run();
+            } catch (RuntimeException e) {
+                errors.increment();
+                lastError = e.toString();
+            }
+            latencies.recordValue((System.nanoTime() - start) / 1000);
+        }
+
+        void reset() {
+            latencies.reset();
+            errors.reset();
+            lastError = null;
+        }
+
+        String name() {
+            return name;
+        }
+
+        int cumulativeWeight() {
+            return cumulativeWeight;
+        }
+
+        ConcurrentHistogram latencies() {
+            return latencies;
+        }
+
+        LongAdder errors() {
+            return errors;
+        }
+
+        String lastError() {
+            return lastError;
+        }
+    }
+}
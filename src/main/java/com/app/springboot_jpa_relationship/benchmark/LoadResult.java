@@ -0,0 +1,26 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+import java.util.Map;
+
+/*
+ * Resultado del generador de carga. Latencias y esperas en milisegundos,
+ * throughput en operaciones por segundo.
+ */
+public record LoadResult(
+        double targetRate,
+        int concurrency,
+        double durationSeconds,
+        long operations,
+        long errors,
+        double throughput,
+        ScenarioResult.Latency latency,
+        Map<String, Operation> byOperation,
+        PoolWait poolWait) {
+
+    public record Operation(long operations, long errors, String lastError, ScenarioResult.Latency latency) {
+    }
+
+    /* Tiempo de espera por una conexión del pool (timer hikaricp.connections.acquire) */
+    public record PoolWait(long acquisitions, double mean, double max) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.entities.Student;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+import com.app.springboot_jpa_relationship.repositories.StudentRepository;
+import com.app.springboot_jpa_relationship.services.ClientAggregateService;
+import com.app.springboot_jpa_relationship.services.EnrollmentService;
+
+/*
+ * Operaciones del generador de carga. A diferencia de los escenarios de
+ * SpringbootJpaRelationshipApplication, que usan ids fijos, estas eligen al azar
+ * entre los clientes, estudiantes y cursos creados por seed(), así pueden
+ * ejecutarse miles a la vez.
+ */
+@Component
+public class LoadWorkload {
+
+    private final ClientRepository clientRepository;
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final EnrollmentService enrollmentService;
+
+    private final ClientAggregateService clientAggregateService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.load.seed.clients:1000}")
+    private int seedClients;
+
+    @Value("${app.load.seed.students:1000}")
+    private int seedStudents;
+
+    @Value("${app.load.seed.courses:20}")
+    private int seedCourses;
+
+    private List<Long> clientIds = List.of();
+
+    private List<Long> studentIds = List.of();
+
+    private List<Long> courseIds = List.of();
+
+    public LoadWorkload(ClientRepository clientRepository, StudentRepository studentRepository,
+            CourseRepository courseRepository, EnrollmentService enrollmentService,
+            ClientAggregateService clientAggregateService, PlatformTransactionManager transactionManager) {
+        this.clientRepository = clientRepository;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentService = enrollmentService;
+        this.clientAggregateService = clientAggregateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void seed() {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < seedClients; i++) {
+            clients.add(newClient());
+        }
+        clientIds = ids(clientRepository.saveAll(clients), Client::getId);
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < seedStudents; i++) {
+            students.add(new Student("Nombre " + i, "Apellido " + i));
+        }
+        studentIds = ids(studentRepository.saveAll(students), Student::getId);
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < seedCourses; i++) {
+            courses.add(new Course("Curso " + i, "Instructor " + i));
+        }
+        courseIds = ids(courseRepository.saveAll(courses), Course::getId);
+    }
+
+    /* Ids de los clientes creados por seed() */
+    public List<Long> clientIds() {
+        return clientIds;
+    }
+
+    public Map<String, Runnable> operations() {
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("createClientWithInvoices", this::createClientWithInvoices);
+        operations.put("enrollStudents", this::enrollStudents);
+        operations.put("removeInvoice", this::removeInvoice);
+        operations.put("findClientAggregate", this::findClientAggregate);
+        operations.put("findClientView", this::findClientView);
+        operations.put("findStudentWithCourses", this::findStudentWithCourses);
+        return operations;
+    }
+
+    private void createClientWithInvoices() {
+        clientRepository.save(newClient());
+    }
+
+    private void enrollStudents() {
+        enrollmentService.enroll(List.of(random(studentIds), random(studentIds), random(studentIds)),
+                List.of(random(courseIds)));
+    }
+
+    private void removeInvoice() {
+        transactionTemplate.executeWithoutResult(status -> clientRepository.findOneWithInvoices(random(clientIds))
+                .ifPresent(client -> client.getInvoices().stream().findFirst().ifPresent(client::removeInvoice)));
+    }
+
+    private void findClientAggregate() {
+        clientRepository.findOneAggregate(random(clientIds));
+    }
+
+    private void findClientView() {
+        clientAggregateService.findClientView(random(clientIds));
+    }
+
+    private void findStudentWithCourses() {
+        studentRepository.findOneWithCourse(random(studentIds));
+    }
+
+    private static Client newClient() {
+        Client client = new Client("Fran", "Moras");
+        client.addInvoice(new Invoice("Compras de la casa", 5000L))
+                .addInvoice(new Invoice("Compras de oficina", 8000L));
+        client.setClientDetails(new ClientDetails(false, 0));
+        return client;
+    }
+
+    private static Long random(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static <T> List<Long> ids(Iterable<T> entities, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(idOf.apply(entity)));
+        return List.copyOf(ids);
+    }
+}
@@ -0,0 +1,180 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot_jpa_relationship.reactive.ClientReadModel;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Compara la latencia de lectura de la misma página de resúmenes de clientes
+ * por los dos caminos (perfil "reactive"):
+ *
+ * - jpa: ClientRepository.findSummariesAfter, un hilo virtual por lectura,
+ *   conexiones JDBC del pool de HikariCP.
+ * - r2dbc: ClientReadModel.findSummariesAfter, todas las lecturas suscritas a
+ *   la vez desde un solo hilo, conexiones del pool de R2DBC.
+ *
+ * En cada ronda se lanzan app.reactive-bench.subscribers lecturas
+ * concurrentes por camino. La latencia de cada lectura se mide desde que
+ * empieza (hilo arrancado o suscripción) hasta que llega la página completa,
+ * así incluye la espera por una conexión. Los dos pools deben tener el mismo
+ * tamaño para que la comparación sea justa.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadBenchmark {
+
+    private final LoadWorkload workload;
+
+    private final ClientRepository clientRepository;
+
+    private final ClientReadModel readModel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Value("${app.reactive-bench.subscribers:5000}")
+    private int subscribers;
+
+    @Value("${app.reactive-bench.warmup:2}")
+    private int warmup;
+
+    @Value("${app.reactive-bench.rounds:5}")
+    private int rounds;
+
+    @Value("${app.reactive-bench.page-size:20}")
+    private int pageSize;
+
+    @Value("${app.reactive-bench.output:target/reactive-read.json}")
+    private Path output;
+
+    public ReactiveReadBenchmark(LoadWorkload workload, ClientRepository clientRepository,
+            ClientReadModel readModel) {
+        this.workload = workload;
+        this.clientRepository = clientRepository;
+        this.readModel = readModel;
+    }
+
+    public ReactiveReadResult run() {
+        workload.seed();
+        List<Long> clientIds = workload.clientIds();
+
+        Map<String, Consumer<Recorder>> paths = new LinkedHashMap<>();
+        paths.put("jpa", recorder -> jpaRound(clientIds, recorder));
+        paths.put("r2dbc", recorder -> reactiveRound(clientIds, recorder));
+
+        Map<String, ReactiveReadResult.Reads> results = new LinkedHashMap<>();
+        paths.forEach((name, round) -> {
+            for (int i = 0; i < warmup; i++) {
+                round.accept(new Recorder());
+            }
+            Recorder recorder = new Recorder();
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                round.accept(recorder);
+            }
+            results.put(name, recorder.result((System.nanoTime() - start) / 1_000_000_000.0));
+        });
+
+        ReactiveReadResult result = new ReactiveReadResult(subscribers, rounds, pageSize, results);
+        write(result);
+        return result;
+    }
+
+    private void jpaRound(List<Long> clientIds, Recorder recorder) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < subscribers; i++) {
+                Long after = randomAfter(clientIds);
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        clientRepository.findSummariesAfter(after, Limit.of(pageSize));
+                        recorder.success(start);
+                    } catch (RuntimeException e) {
+                        recorder.failure(start, e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void reactiveRound(List<Long> clientIds, Recorder recorder) {
+        Flux.range(0, subscribers)
+                .flatMap(i -> {
+                    Long after = randomAfter(clientIds);
+                    return Mono.defer(() -> {
+                        long start = System.nanoTime();
+                        return readModel.findSummariesAfter(after, pageSize)
+                                .collectList()
+                                .doOnSuccess(page -> recorder.success(start))
+                                .doOnError(e -> recorder.failure(start, e))
+                                .onErrorResume(e -> Mono.empty());
+                    });
+                }, subscribers)
+                .blockLast();
+    }
+
+    /* Un id anterior a un cliente existente, así la página nunca sale vacía */
+    private static Long randomAfter(List<Long> clientIds) {
+        return clientIds.get(ThreadLocalRandom.current().nextInt(clientIds.size())) - 1;
+    }
+
+    private void write(ReactiveReadResult result) {
+        try {
+            Path parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writeValue(output.toFile(), result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println("Resultados de lecturas JPA/R2DBC en " + output.toAbsolutePath());
+    }
+
+    /* Latencias (microsegundos) y errores de las lecturas de un camino */
+    private static final class Recorder {
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(3);
+
+        private final LongAdder errors = new LongAdder();
+
+        private volatile String lastError;
+
+        void success(long start) {
+            latencies.recordValue((System.nanoTime() - start) / 1000);
+        }
+
+        void failure(long start, Throwable error) {
+            errors.increment();
+            lastError = error.toString();
+            latencies.recordValue((System.nanoTime() - start) / 1000);
+        }
+
+        ReactiveReadResult.Reads result(double seconds) {
+            return new ReactiveReadResult.Reads(latencies.getTotalCount(), errors.sum(), lastError,
+                    latencies.getTotalCount() / seconds, LoadGenerator.latency(latencies));
+        }
+    }
+}
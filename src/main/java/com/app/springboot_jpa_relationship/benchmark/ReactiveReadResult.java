@@ -0,0 +1,18 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+import java.util.Map;
+
+/*
+ * Resultado de ReactiveReadBenchmark por camino (jpa, r2dbc). Latencias en
+ * milisegundos, throughput en lecturas por segundo.
+ */
+public record ReactiveReadResult(
+        int subscribers,
+        int rounds,
+        int pageSize,
+        Map<String, Reads> paths) {
+
+    public record Reads(long reads, long errors, String lastError, double throughput,
+            ScenarioResult.Latency latency) {
+    }
+}
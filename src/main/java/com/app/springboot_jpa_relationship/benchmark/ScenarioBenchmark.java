@@ -0,0 +1,172 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot_jpa_relationship.config.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Ejecuta los escenarios de SpringbootJpaRelationshipApplication como un
+ * benchmark repetible (perfil "bench", base de datos H2 embebida).
+ *
+ * Antes de cada iteración se vacían las tablas, se reinician las secuencias y
+ * se vuelve a cargar import.sql (SchemaManager.truncateMappedObjects), y se
+ * vacía el caché de segundo nivel, así cada iteración parte del mismo estado y
+ * los ids de import.sql (clientes y estudiantes 1 y 2) siguen siendo válidos.
+ *
+ * Los ids generados no se repiten entre iteraciones: el optimizador pooled-lo
+ * de Hibernate guarda en memoria el bloque de ids ya reservado y sigue
+ * usándolo aunque la secuencia se reinicie. Por eso los escenarios buscan lo
+ * que crean por el id que se le asignó y no por un valor fijo.
+ *
+ * Por escenario se informan percentiles de latencia, sentencias SQL por tipo
+ * (SqlStatementCounter) y filas insertadas, actualizadas, eliminadas y
+ * cargadas (estadísticas de Hibernate). El resultado se escribe en JSON.
+ */
+@Component
+public class ScenarioBenchmark {
+
+    private final SessionFactory sessionFactory;
+
+    private final SqlStatementCounter statementCounter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Value("${app.benchmark.warmup:3}")
+    private int warmup;
+
+    @Value("${app.benchmark.iterations:20}")
+    private int iterations;
+
+    @Value("${app.benchmark.scenarios:}")
+    private List<String> selectedScenarios;
+
+    @Value("${app.benchmark.output:target/scenario-benchmark.json}")
+    private Path output;
+
+    public ScenarioBenchmark(EntityManagerFactory entityManagerFactory, SqlStatementCounter statementCounter) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statementCounter = statementCounter;
+    }
+
+    public List<ScenarioResult> run(Map<String, Runnable> scenarios) {
+        List<ScenarioResult> results = new ArrayList<>();
+        scenarios.forEach((name, scenario) -> {
+            if (selectedScenarios.isEmpty() || selectedScenarios.contains(name)) {
+                results.add(measure(name, scenario));
+            }
+        });
+        write(results);
+        return results;
+    }
+
+    private ScenarioResult measure(String name, Runnable scenario) {
+        for (int i = 0; i < warmup; i++) {
+            resetDatabase();
+            try {
+                scenario.run();
+            } catch (RuntimeException e) {
+                // los errores se cuentan en las iteraciones medidas
+            }
+        }
+
+        Statistics statistics = sessionFactory.getStatistics();
+        long[] durations = new long[iterations];
+        long[] statements = new long[5];
+        long[] rows = new long[5];
+        int errors = 0;
+        String lastError = null;
+        for (int i = 0; i < iterations; i++) {
+            resetDatabase();
+            statementCounter.reset();
+            statistics.clear();
+            long start = System.nanoTime();
+            try {
+                scenario.run();
+            } catch (RuntimeException e) {
+                errors++;
+                lastError = e.toString();
+            }
+            durations[i] = System.nanoTime() - start;
+
+            SqlStatementCounter.Snapshot snapshot = statementCounter.snapshot();
+            statements[0] += snapshot.selects();
+            statements[1] += snapshot.inserts();
+            statements[2] += snapshot.updates();
+            statements[3] += snapshot.deletes();
+            statements[4] += snapshot.others();
+            rows[0] += statistics.getEntityInsertCount();
+            rows[1] += statistics.getEntityUpdateCount();
+            rows[2] += statistics.getEntityDeleteCount();
+            rows[3] += statistics.getEntityLoadCount();
+            rows[4] += statistics.getCollectionLoadCount();
+        }
+
+        double n = iterations;
+        double totalStatements = Arrays.stream(statements).sum() / n;
+        return new ScenarioResult(name, iterations, errors, lastError, latency(durations),
+                new ScenarioResult.Statements(statements[0] / n, statements[1] / n, statements[2] / n,
+                        statements[3] / n, statements[4] / n, totalStatements),
+                new ScenarioResult.Rows(rows[0] / n, rows[1] / n, rows[2] / n, rows[3] / n, rows[4] / n));
+    }
+
+    private void resetDatabase() {
+        sessionFactory.getSchemaManager().truncateMappedObjects();
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private static ScenarioResult.Latency latency(long[] durations) {
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        return new ScenarioResult.Latency(millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                millis(percentile(sorted, 0.99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                mean / 1_000_000.0);
+    }
+
+    /* Percentil por rango más cercano sobre un arreglo ordenado */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private void write(List<ScenarioResult> results) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("warmup", warmup);
+        report.put("iterations", iterations);
+        report.put("scenarios", results);
+        try {
+            Path parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writeValue(output.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println("Resultados del benchmark en " + output.toAbsolutePath());
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.springboot_jpa_relationship.benchmark;
+
+/*
+ * Resultado de un escenario. Latencias en milisegundos; sentencias y filas
+ * son promedios por iteración medida.
+ */
+public record ScenarioResult(
+        String scenario,
+        int iterations,
+        int errors,
+        String lastError,
+        Latency latency,
+        Statements statements,
+        Rows rows) {
+
+    public record Latency(double p50, double p90, double p99, double max, double mean) {
+    }
+
+    public record Statements(double select, double insert, double update, double delete, double other,
+            double total) {
+    }
+
+    public record Rows(double inserted, double updated, double deleted, double entitiesLoaded,
+            double collectionsLoaded) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.app.springboot_jpa_relationship.config;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Caché de segundo nivel de Hibernate con JCache (Ehcache 3) dentro del mismo
+ * proceso, sin servidor de caché externo.
+ *
+ * Cada región tiene un nivel en el heap acotado por número de entradas y un
+ * nivel off-heap (memoria nativa, fuera del alcance del GC) acotado en MB.
+ * Las entradas que no caben en el heap bajan al off-heap y las que no caben en
+ * ninguno se desalojan.
+ *
+ * El CacheManager se crea aquí y se le pasa a Hibernate, en lugar de un
+ * ehcache.xml, para que los tamaños se configuren en application.properties.
+ * Cada contexto de Spring tiene su propio CacheManager (con una URI propia):
+ * el CacheManager por defecto del proveedor es único en la JVM, así que un
+ * segundo contexto (p. ej. en los tests) encontraría las regiones ya creadas y
+ * al cerrarse cerraría las de los demás.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String COURSES = "courses";
+    public static final String COURSES_NATURAL_ID = "courses_natural_id";
+    public static final String CLIENTS_DETAILS = "clients_details";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private static final AtomicLong CACHE_MANAGERS = new AtomicLong();
+
+    @Value("${app.cache.heap-entries}")
+    private long heapEntries;
+
+    @Value("${app.cache.offheap-mb}")
+    private long offheapMb;
+
+    @Value("${app.cache.ttl-minutes}")
+    private long ttlMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jcacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = getClass().getClassLoader();
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("jpa-relationship-cache-" + CACHE_MANAGERS.incrementAndGet()),
+                new DefaultConfiguration(classLoader));
+        createTieredCache(cacheManager, COURSES);
+        createTieredCache(cacheManager, COURSES_NATURAL_ID);
+        createTieredCache(cacheManager, CLIENTS_DETAILS);
+        createTieredCache(cacheManager, QUERY_RESULTS);
+        /*
+         * Las marcas de tiempo de actualización invalidan el caché de consultas:
+         * no deben expirar ni desalojarse, y son pocas (una por tabla).
+         */
+        cacheManager.createCache(UPDATE_TIMESTAMPS, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Serializable.class, Serializable.class,
+                        ResourcePoolsBuilder.heap(heapEntries))));
+        cacheManager.enableStatistics(UPDATE_TIMESTAMPS, true);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jcacheHibernateCustomizer(CacheManager jcacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, jcacheManager);
+    }
+
+    private void createTieredCache(CacheManager cacheManager, String region) {
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Serializable.class, Serializable.class,
+                        ResourcePoolsBuilder.heap(heapEntries).offheap(offheapMb, MemoryUnit.MB))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(ttlMinutes)))));
+        cacheManager.enableStatistics(region, true);
+    }
+}
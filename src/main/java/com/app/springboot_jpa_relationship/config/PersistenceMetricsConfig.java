@@ -0,0 +1,81 @@
+package com.app.springboot_jpa_relationship.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+
+import com.app.springboot_jpa_relationship.services.CacheStatisticsService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Métricas de persistencia además de las que Spring Boot ya registra:
+ *
+ * - spring.data.repository.invocations: un timer por método de repositorio
+ *   (Spring Boot lo mide en cada invocación); aquí se definen sus etiquetas.
+ * - hibernate.*: estadísticas de Hibernate (hibernate-micrometer), requieren
+ *   hibernate.generate_statistics=true.
+ * - hikaricp.connections.acquire: tiempo de espera por una conexión del pool.
+ * - cache.region.*: aciertos sobre el total (gauge) y desalojos (contador,
+ *   solo crece) de cada región del caché de segundo nivel
+ *   (CacheStatisticsService), etiquetados por región.
+ *
+ * Los timers no guardan histogramas, así que el costo por llamada es el de un
+ * par de System.nanoTime() y un incremento atómico.
+ */
+@Configuration
+public class PersistenceMetricsConfig {
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return invocation -> {
+            RepositoryMethodInvocationResult result = invocation.getResult();
+            Throwable error = result == null ? null : result.getError();
+            return Tags.of(
+                    "repository", invocation.getRepositoryInterface().getSimpleName(),
+                    "method", invocation.getMethod().getName(),
+                    "outcome", result == null ? "UNKNOWN" : result.getState().name(),
+                    "exception", error == null ? "none" : error.getClass().getSimpleName());
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                PersistenceMetricsConfig::hitRatio)
+                .description("Aciertos / (aciertos + fallos) del caché de segundo nivel")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder cacheRegionMetrics(CacheStatisticsService cacheStatisticsService) {
+        return registry -> {
+            for (String region : CacheStatisticsService.REGIONS) {
+                Gauge.builder("cache.region.hit.ratio", cacheStatisticsService,
+                        service -> service.region(region).hitRatio())
+                        .description("Aciertos / (aciertos + fallos) de la región")
+                        .tag("region", region)
+                        .register(registry);
+                FunctionCounter.builder("cache.region.evictions", cacheStatisticsService,
+                        service -> service.region(region).evictions())
+                        .description("Entradas desalojadas de la región por falta de espacio")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long requests = hits + statistics.getSecondLevelCacheMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
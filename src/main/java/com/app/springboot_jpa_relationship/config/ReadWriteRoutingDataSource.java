@@ -0,0 +1,175 @@
+package com.app.springboot_jpa_relationship.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Envía las transacciones de solo lectura (@Transactional(readOnly = true), los
+ * métodos de consulta de Spring Data) a una réplica y todo lo demás al primario.
+ *
+ * La ruta se decide al pedir la conexión, así que este DataSource debe usarse
+ * detrás de un LazyConnectionDataSourceProxy: el gestor de transacciones pide
+ * la conexión antes de marcar la transacción como de solo lectura, y el proxy
+ * la obtiene recién en la primera sentencia.
+ *
+ * Leer lo propio escrito: después del commit de una transacción de escritura,
+ * las lecturas del mismo hilo siguen yendo al primario durante
+ * readYourWritesWindow (el retraso de replicación que se tolera), y onPrimary()
+ * fuerza el primario para un bloque de código.
+ *
+ * datasource.routing.transactions cuenta cada transacción una sola vez, en su
+ * primera sentencia. No cuenta las conexiones pedidas fuera de una transacción,
+ * como la que usa LazyConnectionDataSourceProxy para leer el autocommit y el
+ * aislamiento por defecto.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_BUSY
+    }
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Integer> FORCED_PRIMARY = ThreadLocal.withInitial(() -> 0);
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final List<HikariDataSource> replicas;
+
+    private final Strategy strategy;
+
+    private final long readYourWritesNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Strategy strategy,
+            Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, counter(meterRegistry, PRIMARY));
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+            routed.put(key, counter(meterRegistry, key));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /*
+     * Ejecuta action con todas sus lecturas en el primario, aunque sean de solo
+     * lectura (por ejemplo para leer justo después de escribir en otro hilo).
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        FORCED_PRIMARY.set(FORCED_PRIMARY.get() + 1);
+        try {
+            return action.get();
+        } finally {
+            FORCED_PRIMARY.set(FORCED_PRIMARY.get() - 1);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = route();
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !routedInThisTransaction()) {
+            routed.get(key).increment();
+            TransactionSynchronizationManager.registerSynchronization(new RoutedTransaction(this,
+                    TransactionSynchronizationManager.isActualTransactionActive()
+                            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+        }
+        return key;
+    }
+
+    private boolean routedInThisTransaction() {
+        return TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(synchronization -> synchronization instanceof RoutedTransaction routedTransaction
+                        && routedTransaction.owner() == this);
+    }
+
+    private String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || FORCED_PRIMARY.get() > 0 || recentlyWrote()) {
+            return PRIMARY;
+        }
+        return strategy == Strategy.LEAST_BUSY ? leastBusyReplica() : nextReplica();
+    }
+
+    private boolean recentlyWrote() {
+        Long lastWriteNanos = lastWrite.get();
+        return lastWriteNanos != null && System.nanoTime() - lastWriteNanos < readYourWritesNanos;
+    }
+
+    private String nextReplica() {
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /* Réplica con menos conexiones en uso; en empate, la siguiente por turno */
+    private String leastBusyReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicaKeys.size());
+        int best = start;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            int index = (start + i) % replicaKeys.size();
+            HikariPoolMXBean pool = replicas.get(index).getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < bestActive) {
+                best = index;
+                bestActive = active;
+            }
+        }
+        return replicaKeys.get(best);
+    }
+
+    /*
+     * Marca la transacción actual como ya contada; si escribe, el commit abre la
+     * ventana de leer lo propio escrito.
+     */
+    private record RoutedTransaction(ReadWriteRoutingDataSource owner, boolean write)
+            implements TransactionSynchronization {
+
+        @Override
+        public void afterCommit() {
+            if (write) {
+                owner.lastWrite.set(System.nanoTime());
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.routing.transactions")
+                .description("Transacciones por ruta")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.springboot_jpa_relationship.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Con app.routing.enabled=true reemplaza el DataSource de Spring Boot por un
+ * pool para el primario (spring.datasource.url) y uno por cada réplica de
+ * app.routing.replicas, con el mismo usuario y contraseña. Cada pool publica
+ * sus métricas hikaricp.* con la etiqueta pool=primary, replica-1, ...
+ *
+ * Todos los pools toman spring.datasource.hikari.*, como el pool de Spring
+ * Boot; app.routing.maximum-pool-size, si está definido, reemplaza el tamaño
+ * de cada uno.
+ *
+ * Los pools no son beans (serían varios DataSource candidatos) y el proxy que
+ * se expone no se puede cerrar: se cierran aquí al cerrar el contexto, después
+ * del EntityManagerFactory que los usa.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Value("${app.routing.replicas:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.routing.strategy:round-robin}")
+    private String strategy;
+
+    @Value("${app.routing.read-your-writes-window:1s}")
+    private Duration readYourWritesWindow;
+
+    @Value("${app.routing.maximum-pool-size:#{null}}")
+    private Integer maximumPoolSize;
+
+    private final Environment environment;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    public RoutingDataSourceConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(properties, properties.determineUrl(), ReadWriteRoutingDataSource.PRIMARY,
+                meterRegistry);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(pool(properties, replicaUrls.get(i).trim(), "replica-" + (i + 1), meterRegistry));
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas,
+                ReadWriteRoutingDataSource.Strategy.valueOf(strategy.toUpperCase().replace('-', '_')),
+                readYourWritesWindow, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, String url, String name,
+            MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        if (maximumPoolSize != null) {
+            pool.setMaximumPoolSize(maximumPoolSize);
+        }
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(pool);
+        return pool;
+    }
+
+    @PreDestroy
+    void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
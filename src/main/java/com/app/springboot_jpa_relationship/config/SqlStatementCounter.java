@@ -0,0 +1,80 @@
+package com.app.springboot_jpa_relationship.config;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/*
+ * Cuenta las sentencias SQL que prepara Hibernate, por tipo. Hibernate llama a
+ * inspect() una vez por sentencia preparada: un lote de JDBC cuenta como una
+ * sola sentencia, y el SQL ejecutado directamente sobre la conexión (doWork)
+ * no pasa por aquí.
+ *
+ * Se registra primero para que otros inspectores (por ejemplo el de los tests)
+ * puedan envolverlo.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    public enum Type {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    private final Map<Type, LongAdder> counters = Map.of(Type.SELECT, new LongAdder(), Type.INSERT,
+            new LongAdder(), Type.UPDATE, new LongAdder(), Type.DELETE, new LongAdder(), Type.OTHER,
+            new LongAdder());
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        counters.get(typeOf(sql)).increment();
+        return sql;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(count(Type.SELECT), count(Type.INSERT), count(Type.UPDATE), count(Type.DELETE),
+                count(Type.OTHER));
+    }
+
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    public static Type typeOf(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return switch (trimmed.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> Type.SELECT;
+            case "insert" -> Type.INSERT;
+            case "update" -> Type.UPDATE;
+            case "delete" -> Type.DELETE;
+            default -> Type.OTHER;
+        };
+    }
+
+    private long count(Type type) {
+        return counters.get(type).sum();
+    }
+
+    public record Snapshot(long selects, long inserts, long updates, long deletes, long others) {
+
+        public long total() {
+            return selects + inserts + updates + deletes + others;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.springboot_jpa_relationship.entities;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/*
+ * Lotes de puntos ya aplicados por LoyaltyPointsAccumulator. La fila se inserta
+ * en la misma transacción que los UPDATE del lote, así al volver a aplicar un
+ * archivo de derrame después de una caída se sabe si el lote ya hizo commit.
+ *
+ * La entidad es de solo lectura (@Immutable): las filas se escriben con SQL.
+ */
+@Entity
+@Immutable
+@Table(name = "applied_points_batches")
+public class AppliedPointsBatch {
+
+    @Id
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    private LocalDateTime appliedAt;
+
+    public AppliedPointsBatch() {
+
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+}
@@ -3,6 +3,8 @@ package com.app.springboot_jpa_relationship.entities;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.Hibernate;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,22 +13,61 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
+/*
+ * Planes de carga para FetchPlanRepository (ClientRepository.findById(id,
+ * "withInvoices"), findAll("summary"), findPage(token, size, "withDetails")...).
+ *
+ * Ningún plan incluye las dos colecciones: el join fetch de invoices y
+ * addresses devolvería el producto cartesiano de ambas. El agregado completo se
+ * carga con ClientRepository.findOneAggregate, una consulta por colección.
+ */
 @Entity
 @Table(name = "clients")
+@NamedEntityGraph(name = "Client.summary")
+@NamedEntityGraph(name = "Client.withDetails", attributeNodes = @NamedAttributeNode("clientDetails"))
+@NamedEntityGraph(name = "Client.withInvoices", attributeNodes = @NamedAttributeNode("invoices"))
+@NamedEntityGraph(name = "Client.withAddresses", attributeNodes = @NamedAttributeNode("addresses"))
 public class Client {
 
+    /*
+     * Con GenerationType.IDENTITY Hibernate necesita ejecutar cada INSERT en el
+     * momento del persist para conocer el id generado por la base de datos, por lo
+     * que desactiva el batching de JDBC (hibernate.jdbc.batch_size).
+     *
+     * Con una secuencia y allocationSize = 50 Hibernate reserva un bloque de 50
+     * ids con una sola llamada a la secuencia (optimizador pooled-lo, ver
+     * application.properties) y puede agrupar los INSERT del cliente, sus facturas
+     * y sus direcciones en lotes.
+     *
+     * El mismo esquema se aplica al resto de entidades, cada una con su propia
+     * secuencia (tabla + "_seq").
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String lastname;
 
+    /*
+     * Bloqueo optimista: cada UPDATE de clients incluye "where version = ?" y la
+     * incrementa. Si otra transacción modificó el cliente (o sus colecciones)
+     * desde que se cargó, el UPDATE no afecta filas y Hibernate lanza
+     * OptimisticLockException en lugar de sobrescribir sus cambios.
+     */
+    @Version
+    private Long version;
+
     /**
      * @OneToMany
      *            La anotación @OneToMany se usa para especificar una relación de
@@ -270,7 +311,13 @@ public class Client {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "client")
     private Set<Invoice> invoices;
 
-    /* Clase padre */
+    /*
+     * Clase padre. La FK está en clients_details, así que sin instrumentar las
+     * clases Hibernate no puede crear un proxy (no sabe si el detalle existe) y
+     * hace un SELECT por cliente aunque sea LAZY. Con el plugin
+     * hibernate-enhance-maven-plugin (enableLazyInitialization) el atributo se
+     * carga la primera vez que se llama a getClientDetails().
+     */
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "client")
     private ClientDetails clientDetails;
 
@@ -298,6 +345,10 @@ public class Client {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -350,6 +401,24 @@ public class Client {
         return this;
     }
 
+    /*
+     * Como addInvoice, pero si invoices todavía no se cargó de la base de datos
+     * no se carga: solo se asigna el cliente a la factura, que es el lado dueño
+     * de la relación y lo único que se guarda. Agregar a un cliente con 100.000
+     * facturas cuesta lo mismo que a uno sin facturas.
+     *
+     * Invoice.hashCode incluye el id, así que la factura debe estar persistida
+     * antes de entrar en el HashSet: si el id se asigna después, contains() ya
+     * no la encuentra.
+     */
+    public Client appendInvoice(Invoice invoice) {
+        invoice.setClient(this);
+        if (Hibernate.isInitialized(invoices)) {
+            invoices.add(invoice);
+        }
+        return this;
+    }
+
     public void removeInvoice(Invoice invoice) {
         this.getInvoices().remove(invoice);
         invoice.setClient(null);
@@ -1,26 +1,41 @@
 package com.app.springboot_jpa_relationship.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.app.springboot_jpa_relationship.config.CacheConfig;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.CLIENTS_DETAILS)
 @Table(name = "clients_details")
 public class ClientDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_details_seq")
+    @SequenceGenerator(name = "clients_details_seq", sequenceName = "clients_details_seq", allocationSize = 50)
     private Long id;
 
     private Boolean premium;
     private Integer points;
 
+    @Version
+    private Long version;
+
     /* Clase hija, dueña de la relación */
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn
     private Client client;
 
@@ -41,6 +56,10 @@ public class ClientDetails {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Boolean isPremium() {
         return premium;
     }
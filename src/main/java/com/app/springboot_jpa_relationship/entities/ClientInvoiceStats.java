@@ -0,0 +1,68 @@
+package com.app.springboot_jpa_relationship.entities;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/*
+ * Totales de facturas por cliente mantenidos de forma incremental por
+ * ClientInvoiceStatsListener cada vez que se inserta, modifica o elimina una
+ * factura. Leer los totales de un cliente es una búsqueda por clave primaria,
+ * sin recorrer la tabla invoices.
+ *
+ * La entidad es de solo lectura (@Immutable): las filas las escribe el
+ * listener con SQL, no Hibernate.
+ */
+@Entity
+@Immutable
+@Table(name = "client_invoice_stats")
+public class ClientInvoiceStats {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    private Long invoiceCount;
+    private Long totalSum;
+    private Long minTotal;
+    private Long maxTotal;
+
+    public ClientInvoiceStats() {
+
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public Long getInvoiceCount() {
+        return invoiceCount;
+    }
+
+    public Long getTotalSum() {
+        return totalSum;
+    }
+
+    public Long getMinTotal() {
+        return minTotal;
+    }
+
+    public Long getMaxTotal() {
+        return maxTotal;
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                " clientId='" + getClientId() + "'" +
+                ", invoiceCount='" + getInvoiceCount() + "'" +
+                ", totalSum='" + getTotalSum() + "'" +
+                ", minTotal='" + getMinTotal() + "'" +
+                ", maxTotal='" + getMaxTotal() + "'" +
+                "}";
+    }
+
+}
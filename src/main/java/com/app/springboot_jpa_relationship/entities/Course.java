@@ -4,21 +4,49 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.app.springboot_jpa_relationship.config.CacheConfig;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+/*
+ * Course es un catálogo pequeño que casi no cambia: se guarda en el caché de
+ * segundo nivel (región "courses") y findById ya no va a la base de datos
+ * mientras la entrada siga en el caché. READ_WRITE mantiene el caché
+ * consistente cuando un curso se modifica o se elimina.
+ *
+ * El nombre es el identificador natural del curso: único e inmutable. La región
+ * "courses_natural_id" guarda la relación nombre -> id, así una búsqueda por
+ * nombre que ya se resolvió antes no va a la base de datos.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.COURSES)
+@NaturalIdCache(region = CacheConfig.COURSES_NATURAL_ID)
 @Table(name = "courses")
+@NamedEntityGraph(name = "Course.summary")
+@NamedEntityGraph(name = "Course.withStudents", attributeNodes = @NamedAttributeNode("students"))
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId
     private String name;
 
     private String instructor;
@@ -1,24 +1,38 @@
 package com.app.springboot_jpa_relationship.entities;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "invoices")
+/*
+ * client_id se filtra en findOneWithInvoices, countByClientId, la exportación
+ * por cliente y los totales de client_invoice_stats. InnoDB ordena los índices
+ * secundarios por la clave primaria, así que "where client_id = ? order by id"
+ * tampoco necesita ordenar.
+ */
+@Table(name = "invoices", indexes = @Index(name = "idx_invoices_client_id", columnList = "client_id"))
 public class Invoice {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+    @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_seq", allocationSize = 50)
     private Long id;
 
     private String description;
     private Long total;
 
+    @Version
+    private Long version;
+
     /*
      * La primer palabra de la carnalidad se refiere a la clase donde esta el
      * atributo (Invoice) y la siguiente palabra de la carnalidad se refiere al
@@ -59,7 +73,12 @@ public class Invoice {
      * muchos, donde múltiples instancias de una entidad pueden estar asociadas con
      * múltiples instancias de otra entidad.
      */
-    @ManyToOne
+    /*
+     * Por defecto @ManyToOne es EAGER y cada factura cargada traía su cliente
+     * (y el cliente sus detalles). Con LAZY el cliente es un proxy que solo tiene
+     * el id hasta que se usa.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     /*
      * La anotación @JoinColumn se usa en JPA para especificar el nombre de la
      * columna que se utiliza para establecer una relación entre dos entidades en
@@ -108,6 +127,10 @@ public class Invoice {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -8,19 +8,26 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.util.Objects;
 
 @Entity
 @Table(name = "students")
+@NamedEntityGraph(name = "Student.summary")
+@NamedEntityGraph(name = "Student.withCourses", attributeNodes = @NamedAttributeNode("courses"))
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -62,9 +69,16 @@ public class Student {
      * en la tabla tbl_students_courses, evitando así que el mismo estudiante esté
      * registrado en el mismo curso más de una vez.
      */
+    /*
+     * Al ser un Set, Hibernate genera la clave primaria (id_student, id_course),
+     * que sirve de índice para buscar por estudiante; la restricción única sobre
+     * las mismas columnas la repite. idx_students_courses_course cubre las
+     * búsquedas por curso (findByCoursesContaining, Course.students, la
+     * eliminación de cursos).
+     */
     @ManyToMany(cascade = { CascadeType.PERSIST, CascadeType.MERGE })
     @JoinTable(name = "tbl_students_courses", joinColumns = @JoinColumn(name = "id_student"), inverseJoinColumns = @JoinColumn(name = "id_course"), uniqueConstraints = @UniqueConstraint(columnNames = {
-            "id_student", "id_course" }))
+            "id_student", "id_course" }), indexes = @Index(name = "idx_students_courses_course", columnList = "id_course"))
     private Set<Course> courses;
 
     public Student() {
@@ -0,0 +1,9 @@
+package com.app.springboot_jpa_relationship.reactive;
+
+/*
+ * Dirección de un cliente leída con R2DBC. Es una proyección: no hay entidad
+ * Address ni contexto de persistencia detrás.
+ */
+public record AddressRow(Long id, String street, Integer number) {
+
+}
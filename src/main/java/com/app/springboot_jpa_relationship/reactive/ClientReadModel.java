@@ -0,0 +1,145 @@
+package com.app.springboot_jpa_relationship.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot_jpa_relationship.repositories.ClientSummary;
+import com.app.springboot_jpa_relationship.repositories.InvoiceExportRow;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Modelo de lectura reactivo sobre las mismas tablas que las entidades
+ * (clients, invoices, addresses, clients_details), con R2DBC en lugar de JDBC.
+ * Ninguna consulta bloquea un hilo mientras espera a la base de datos, así
+ * miles de lecturas concurrentes no necesitan miles de hilos.
+ *
+ * Es solo de lectura y no pasa por Hibernate: no hay caché de segundo nivel ni
+ * contexto de persistencia, y lo que se escribe con JPA se ve en cuanto la
+ * transacción hace commit. Las consultas devuelven las mismas proyecciones que
+ * ClientRepository.findSummariesAfter e InvoiceRepository.exportInvoices.
+ *
+ * Contrapresión: los Flux piden filas al driver según la demanda del
+ * suscriptor, como mucho app.reactive.prefetch por petición, así un consumidor
+ * lento de invoices() no hace que se cargue todo el resultado en memoria.
+ *
+ * Solo existe con app.reactive.enabled=true. El pool de R2DBC se crea aquí y no
+ * como bean: con un ConnectionFactory en el contexto Spring Boot no configura
+ * el DataSource de JDBC y JPA se queda sin conexiones.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ClientReadModel {
+
+    private static final String SUMMARY_SELECT = "select c.id, c.name, c.lastname, count(i.id) as invoice_count, "
+            + "coalesce(sum(i.total), 0) as invoice_total, d.premium, d.points "
+            + "from clients c left join invoices i on i.client_id = c.id "
+            + "left join clients_details d on d.client_id = c.id ";
+
+    private static final String SUMMARY_GROUP_BY = "group by c.id, c.name, c.lastname, d.premium, d.points ";
+
+    private static final String INVOICE_SELECT = "select i.id, i.description, i.total, c.id as client_id, "
+            + "c.name as client_name, c.lastname as client_lastname "
+            + "from invoices i join clients c on c.id = i.client_id ";
+
+    private final ConnectionPool connectionPool;
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${app.reactive.prefetch:256}")
+    private int prefetch;
+
+    public ClientReadModel(@Value("${app.reactive.url}") String url,
+            @Value("${app.reactive.username:}") String username, @Value("${app.reactive.password:}") String password,
+            @Value("${app.reactive.pool-size:10}") int poolSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    void close() {
+        connectionPool.dispose();
+    }
+
+    public Mono<ClientSummary> findSummary(Long id) {
+        return databaseClient.sql(SUMMARY_SELECT + "where c.id = :id " + SUMMARY_GROUP_BY)
+                .bind("id", id)
+                .map(ClientReadModel::summary)
+                .one();
+    }
+
+    /* Página keyset: los clientes con id mayor que id, como mucho limit */
+    public Flux<ClientSummary> findSummariesAfter(Long id, int limit) {
+        return databaseClient
+                .sql(SUMMARY_SELECT + "where c.id > :id " + SUMMARY_GROUP_BY + "order by c.id limit :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ClientReadModel::summary)
+                .all();
+    }
+
+    public Flux<ClientSummary> streamSummaries() {
+        return databaseClient.sql(SUMMARY_SELECT + SUMMARY_GROUP_BY + "order by c.id")
+                .map(ClientReadModel::summary)
+                .all()
+                .limitRate(prefetch);
+    }
+
+    public Flux<InvoiceExportRow> streamInvoices() {
+        return databaseClient.sql(INVOICE_SELECT + "order by i.id")
+                .map(ClientReadModel::invoice)
+                .all()
+                .limitRate(prefetch);
+    }
+
+    public Flux<InvoiceExportRow> streamInvoices(Long clientId) {
+        return databaseClient.sql(INVOICE_SELECT + "where c.id = :clientId order by i.id")
+                .bind("clientId", clientId)
+                .map(ClientReadModel::invoice)
+                .all()
+                .limitRate(prefetch);
+    }
+
+    public Flux<AddressRow> findAddresses(Long clientId) {
+        return databaseClient.sql("select a.id, a.street, a.number from addresses a "
+                + "join tbl_clientes_to_direcciones ca on ca.id_direcciones = a.id "
+                + "where ca.id_cliente = :clientId order by a.id")
+                .bind("clientId", clientId)
+                .map(row -> new AddressRow(row.get("id", Long.class), row.get("street", String.class),
+                        row.get("number", Integer.class)))
+                .all();
+    }
+
+    /*
+     * sum() devuelve DECIMAL en MariaDB y NUMERIC en H2, por eso el total se lee
+     * como Number.
+     */
+    private static ClientSummary summary(Readable row) {
+        return new ClientSummary(row.get("id", Long.class), row.get("name", String.class),
+                row.get("lastname", String.class), row.get("invoice_count", Long.class),
+                ((Number) row.get("invoice_total")).longValue(), row.get("premium", Boolean.class),
+                row.get("points", Integer.class));
+    }
+
+    private static InvoiceExportRow invoice(Readable row) {
+        return new InvoiceExportRow(row.get("id", Long.class), row.get("description", String.class),
+                row.get("total", Long.class), row.get("client_id", Long.class), row.get("client_name", String.class),
+                row.get("client_lastname", String.class));
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.app.springboot_jpa_relationship.entities.ClientInvoiceStats;
+
+public interface ClientInvoiceStatsRepository extends CrudRepository<ClientInvoiceStats, Long> {
+
+}
@@ -1,14 +1,24 @@
 package com.app.springboot_jpa_relationship.repositories;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app.springboot_jpa_relationship.entities.Client;
 
-public interface ClientRepository extends CrudRepository<Client, Long> {
+/*
+ * Spring Data no aplica ninguna transacción a los métodos de consulta
+ * declarados en la interfaz: sin esta anotación se ejecutan fuera de una
+ * transacción y, con el perfil routing, siempre en el primario. Los métodos de
+ * CrudRepository mantienen la configuración de SimpleJpaRepository.
+ */
+@Transactional(readOnly = true)
+public interface ClientRepository extends FetchPlanRepository<Client> {
     @Query("select c from Client c left join fetch c.addresses where c.id = :id")
     Optional<Client> findOneWithAdresses(@Param("id") Long id);
 
@@ -18,4 +28,62 @@ public interface ClientRepository extends CrudRepository<Client, Long> {
     @Query("select c From Client c left join fetch c.invoices left join fetch c.addresses left join fetch c.clientDetails where c.id = :id")
     Optional<Client> findOne(@Param("id") Long id);
 
+    @Query("select c from Client c left join fetch c.clientDetails where c.id = :id")
+    Optional<Client> findOneWithClientDetails(@Param("id") Long id);
+
+    /*
+     * findOne hace join fetch de invoices y addresses en la misma consulta, lo
+     * que produce un producto cartesiano: un cliente con 500 facturas y 10
+     * direcciones devuelve 5.000 filas.
+     *
+     * Aquí se ejecuta una consulta por asociación dentro de la misma transacción.
+     * Todas devuelven la misma instancia de Client (el contexto de persistencia
+     * garantiza una sola instancia por id) y cada una inicializa una colección,
+     * así que el resultado es el mismo Client completo con 1 + facturas +
+     * direcciones filas en total.
+     */
+    @Transactional(readOnly = true)
+    default Optional<Client> findOneAggregate(Long id) {
+        Optional<Client> client = findOneWithClientDetails(id);
+        client.ifPresent(c -> {
+            findOneWithInvoices(id);
+            findOneWithAdresses(id);
+        });
+        return client;
+    }
+
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /*
+     * Paginación keyset ordenada por id (igual en InvoiceRepository,
+     * StudentRepository y CourseRepository): token es el nextToken de la página
+     * anterior, null para la primera. La consulta es "id > :id order by id
+     * limit size + 1", que usa la clave primaria sin importar la profundidad.
+     */
+    default KeysetPage<Client> findPage(String token, int size) {
+        return KeysetPage.of(findByIdGreaterThanOrderByIdAsc(KeysetPage.afterId(token), KeysetPage.limitFor(size)),
+                size, Client::getId);
+    }
+
+    String SUMMARY_SELECT = "select new com.app.springboot_jpa_relationship.repositories.ClientSummary("
+            + "c.id, c.name, c.lastname, count(i), coalesce(sum(i.total), 0L), d.premium, d.points) "
+            + "from Client c left join c.invoices i left join c.clientDetails d ";
+
+    String SUMMARY_GROUP_BY = "group by c.id, c.name, c.lastname, d.premium, d.points order by c.id";
+
+    @Query(SUMMARY_SELECT + "where c.id > :id " + SUMMARY_GROUP_BY)
+    List<ClientSummary> findSummariesAfter(@Param("id") Long id, Limit limit);
+
+    /* El Stream debe consumirse dentro de una transacción y cerrarse al final */
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP_BY)
+    Stream<ClientSummary> streamSummaries();
+
+    /*
+     * Página de resúmenes con el mismo token que findPage. Los totales se
+     * calculan en la base de datos, no se carga ninguna factura.
+     */
+    default KeysetPage<ClientSummary> findSummaryPage(String token, int size) {
+        return KeysetPage.of(findSummariesAfter(KeysetPage.afterId(token), KeysetPage.limitFor(size)),
+                size, ClientSummary::id);
+    }
 }
@@ -0,0 +1,11 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+/*
+ * Resumen de un cliente para el dashboard: el número y la suma de sus facturas
+ * se calculan en SQL con GROUP BY, sin crear entidades Invoice. premium y
+ * points son null si el cliente no tiene ClientDetails.
+ */
+public record ClientSummary(Long id, String name, String lastname, Long invoiceCount, Long invoiceTotal,
+        Boolean premium, Integer points) {
+
+}
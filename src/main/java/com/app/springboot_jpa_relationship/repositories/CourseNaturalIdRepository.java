@@ -0,0 +1,26 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+
+public interface CourseNaturalIdRepository {
+
+    /*
+     * Carga un curso por su nombre (identificador natural). La relación
+     * nombre -> id sale del contexto de persistencia o del caché de
+     * identificadores naturales; solo si no está ahí se consulta la base de
+     * datos.
+     */
+    Optional<Course> findByNaturalId(String name);
+
+    /*
+     * Carga varios cursos por nombre en el orden recibido, omitiendo los que no
+     * existen. Los nombres que no están en caché se resuelven juntos en una
+     * consulta "where name in (...)" (varias solo si superan el número máximo
+     * de parámetros del dialecto).
+     */
+    List<Course> findAllByNaturalIds(Collection<String> names);
+}
@@ -0,0 +1,56 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Implementación del fragmento CourseNaturalIdRepository con las API de
+ * identificador natural de Hibernate (bySimpleNaturalId, byMultipleNaturalId),
+ * que usan el caché de Course.name declarado con @NaturalIdCache.
+ */
+public class CourseNaturalIdRepositoryImpl implements CourseNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Course> findByNaturalId(String name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Course.class).loadOptional(name);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Course> findAllByNaturalIds(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        /*
+         * Hibernate no admite el orden de entrada con identificadores naturales:
+         * se cargan sin orden y se ordenan aquí por nombre.
+         */
+        Map<String, Course> byName = entityManager.unwrap(Session.class).byMultipleNaturalId(Course.class)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(names))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Course::getName, Function.identity()));
+        return names.stream()
+                .map(byName::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,18 +1,33 @@
 package com.app.springboot_jpa_relationship.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app.springboot_jpa_relationship.entities.Course;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.QueryHint;
 
-public interface CourseRepository extends CrudRepository<Course, Long> {
-    Optional<Course> findByName(String name);
+/*
+ * Solo lectura por defecto, como ClientRepository; las operaciones que
+ * modifican datos declaran su propia transacción.
+ */
+@Transactional(readOnly = true)
+public interface CourseRepository extends FetchPlanRepository<Course>, CourseNaturalIdRepository {
+    /*
+     * El nombre es el identificador natural de Course: se busca por el caché de
+     * identificadores naturales en lugar de ejecutar una consulta.
+     */
+    default Optional<Course> findByName(String name) {
+        return findByNaturalId(name);
+    }
 
     /*
      * 1. @Modifying
@@ -29,21 +44,25 @@ public interface CourseRepository extends CrudRepository<Course, Long> {
      * Por ejemplo, cuando quieres eliminar o actualizar registros en la base de
      * datos utilizando JPQL o consultas nativas.
      * 
-     * 2. MEMBER OF en JPQL
-     * MEMBER OF es una operación de JPQL (Java Persistence Query Language) que se
-     * utiliza para verificar si un elemento es miembro de una colección. En el
-     * contexto de tu consulta, MEMBER OF se utiliza para verificar si un Course es
-     * miembro de la colección courses de Student.
-     * 
-     * Cuándo usar MEMBER OF:
-     * Cuando necesitas comprobar si un elemento está presente en una colección de
-     * elementos en JPQL.
+     * 2. Consulta nativa sobre la tabla intermedia
+     * Un DELETE en JPQL solo puede borrar entidades: "DELETE FROM Student s WHERE
+     * :course MEMBER OF s.courses" eliminaba a los estudiantes inscritos, no su
+     * inscripción. Para quitar el curso a los estudiantes hay que borrar las filas
+     * de tbl_students_courses, y eso se hace con una consulta nativa
+     * (nativeQuery = true). #{#course.id} es una expresión SpEL que toma el id del
+     * parámetro course.
      * 
-     * En esta consulta, :course MEMBER OF s.courses comprueba si el Course dado es
-     * miembro de la colección courses del Student.
+     * Esta consulta borra todas las filas en una sola sentencia; para cursos con
+     * muchos estudiantes CourseDecommissionService las borra por bloques.
+     *
+     * Hibernate no sabe qué tablas toca una consulta nativa y, por defecto,
+     * invalida todas las regiones del caché de segundo nivel. HINT_NATIVE_SPACES
+     * limita la invalidación a tbl_students_courses.
      */
     @Modifying
-    @Query("DELETE FROM Student s WHERE :course MEMBER OF s.courses")
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tbl_students_courses"))
+    @Query(value = "DELETE FROM tbl_students_courses WHERE id_course = :#{#course.id}", nativeQuery = true)
     void removeCourseFromStudents(@Param("course") Course course);
 
     /*
@@ -69,4 +88,11 @@ public interface CourseRepository extends CrudRepository<Course, Long> {
 
     @Query("select c from Course c left join fetch c.students where c.id = :id")
     Optional<Course> findOneWithStudents(@Param("id") Long id);
+
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    default KeysetPage<Course> findPage(String token, int size) {
+        return KeysetPage.of(findByIdGreaterThanOrderByIdAsc(KeysetPage.afterId(token), KeysetPage.limitFor(size)),
+                size, Course::getId);
+    }
 }
@@ -0,0 +1,77 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/*
+ * Clase base de todos los repositorios (@EnableJpaRepositories en
+ * SpringbootJpaRelationshipApplication). Implementa FetchPlanRepository para
+ * los que lo extienden; el resto solo usa lo heredado de SimpleJpaRepository.
+ *
+ * El grafo se pasa como "jakarta.persistence.fetchgraph": Hibernate hace join
+ * fetch de sus atributos en la misma consulta.
+ */
+public class FetchPlanJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+
+    private final EntityManager entityManager;
+
+    public FetchPlanJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    public Optional<T> findById(Long id, String plan) {
+        return Optional.ofNullable(entityManager.find(getDomainClass(), id,
+                Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, graph(plan))));
+    }
+
+    public List<T> findAllById(Iterable<Long> ids, String plan) {
+        List<Long> idList = StreamSupport.stream(ids.spliterator(), false).toList();
+        if (idList.isEmpty()) {
+            return List.of();
+        }
+        return select("where e.id in :ids order by e.id", plan).setParameter("ids", idList).getResultList();
+    }
+
+    public List<T> findAll(String plan) {
+        return select("order by e.id", plan).getResultList();
+    }
+
+    public KeysetPage<T> findPage(String token, int size, String plan) {
+        List<Long> ids = entityManager
+                .createQuery("select e.id from " + entityInformation.getEntityName()
+                        + " e where e.id > :after order by e.id", Long.class)
+                .setParameter("after", KeysetPage.afterId(token))
+                .setMaxResults(KeysetPage.limitFor(size).max())
+                .getResultList();
+        return KeysetPage.of(findAllById(ids, plan), size, this::idOf);
+    }
+
+    private TypedQuery<T> select(String clauses, String plan) {
+        return entityManager
+                .createQuery("select e from " + entityInformation.getEntityName() + " e " + clauses,
+                        getDomainClass())
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, graph(plan));
+    }
+
+    private EntityGraph<?> graph(String plan) {
+        return entityManager.getEntityGraph(entityInformation.getEntityName() + "." + plan);
+    }
+
+    private Long idOf(T entity) {
+        return (Long) entityInformation.getId(entity);
+    }
+}
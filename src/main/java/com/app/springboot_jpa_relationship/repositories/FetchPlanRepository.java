@@ -0,0 +1,34 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/*
+ * Consultas con un plan de carga elegido en cada llamada. El plan es el nombre
+ * de un @NamedEntityGraph de la entidad sin el prefijo: findById(1L,
+ * "withInvoices") usa el grafo "Client.withInvoices". Las asociaciones que no
+ * están en el grafo no se cargan.
+ *
+ * Los planes definidos están en cada entidad. Un plan que no existe hace que
+ * JPA lance IllegalArgumentException, que el proxy del repositorio traduce a
+ * InvalidDataAccessApiUsageException como el resto de errores de uso.
+ */
+@NoRepositoryBean
+public interface FetchPlanRepository<T> extends CrudRepository<T, Long> {
+
+    Optional<T> findById(Long id, String plan);
+
+    List<T> findAllById(Iterable<Long> ids, String plan);
+
+    List<T> findAll(String plan);
+
+    /*
+     * Igual que findPage(token, size) pero aplicando el plan. Primero se
+     * consultan los ids de la página y luego las entidades con esos ids, así el
+     * límite se aplica en la base de datos aunque el plan incluya colecciones.
+     */
+    KeysetPage<T> findPage(String token, int size, String plan);
+}
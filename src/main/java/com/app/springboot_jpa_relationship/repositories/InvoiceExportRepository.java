@@ -0,0 +1,16 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.io.OutputStream;
+
+public interface InvoiceExportRepository {
+
+    /*
+     * Escribe todas las facturas con el nombre de su cliente en CSV y devuelve el
+     * número de filas escritas.
+     */
+    long exportInvoices(OutputStream out, int fetchSize);
+
+    long exportInvoices(OutputStream out);
+
+    long exportClientInvoices(Long clientId, OutputStream out, int fetchSize);
+}
@@ -0,0 +1,97 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Implementación del fragmento InvoiceExportRepository. Spring Data la une a
+ * InvoiceRepository por el sufijo Impl.
+ *
+ * Se recorre el resultado con un cursor de solo avance (ScrollMode.FORWARD_ONLY)
+ * y fetchSize filas por viaje, así el driver no carga todo el resultado en
+ * memoria. El cliente se trae con un join en la misma consulta en lugar de una
+ * carga EAGER de Invoice.client por cada factura, y como se selecciona una
+ * proyección no hay entidades que desasociar del contexto de persistencia.
+ *
+ * El join es left join: una factura sin cliente (client_id admite null) se
+ * exporta igual, con las columnas del cliente vacías.
+ */
+public class InvoiceExportRepositoryImpl implements InvoiceExportRepository {
+
+    private static final String SELECT = "select new com.app.springboot_jpa_relationship.repositories.InvoiceExportRow("
+            + "i.id, i.description, i.total, c.id, c.name, c.lastname) from Invoice i left join i.client c";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int defaultFetchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportInvoices(OutputStream out, int fetchSize) {
+        SelectionQuery<InvoiceExportRow> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(SELECT + " order by i.id", InvoiceExportRow.class);
+        return write(query, out, fetchSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportInvoices(OutputStream out) {
+        return exportInvoices(out, defaultFetchSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportClientInvoices(Long clientId, OutputStream out, int fetchSize) {
+        SelectionQuery<InvoiceExportRow> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(SELECT + " where c.id = :clientId order by i.id", InvoiceExportRow.class)
+                .setParameter("clientId", clientId);
+        return write(query, out, fetchSize);
+    }
+
+    private long write(SelectionQuery<InvoiceExportRow> query, OutputStream out, int fetchSize) {
+        query.setFetchSize(fetchSize).setReadOnly(true);
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (ScrollableResults<InvoiceExportRow> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            writer.write("invoice_id,description,total,client_id,client_name,client_lastname\n");
+            while (results.next()) {
+                InvoiceExportRow row = results.get();
+                writer.write(row.id() + "," + csv(row.description()) + "," + row.total() + ","
+                        + (row.clientId() == null ? "" : row.clientId()) + "," + csv(row.clientName()) + "," + csv(row.clientLastname()) + "\n");
+                rows++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
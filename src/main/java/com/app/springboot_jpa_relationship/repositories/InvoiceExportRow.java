@@ -0,0 +1,11 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+/*
+ * Fila de la exportación de facturas: columnas de la factura y de su cliente
+ * obtenidas con un join en SQL. Al ser una proyección (no una entidad) no
+ * entra en el contexto de persistencia.
+ */
+public record InvoiceExportRow(Long id, String description, Long total, Long clientId, String clientName,
+        String clientLastname) {
+
+}
@@ -1,9 +1,23 @@
 package com.app.springboot_jpa_relationship.repositories;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app.springboot_jpa_relationship.entities.Invoice;
 
-public interface InvoiceRepository extends CrudRepository<Invoice, Long> {
+/* Solo lectura por defecto, como ClientRepository */
+@Transactional(readOnly = true)
+public interface InvoiceRepository extends CrudRepository<Invoice, Long>, InvoiceExportRepository {
+
+    long countByClientId(Long clientId);
+
+    List<Invoice> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
+    default KeysetPage<Invoice> findPage(String token, int size) {
+        return KeysetPage.of(findByIdGreaterThanOrderByIdAsc(KeysetPage.afterId(token), KeysetPage.limitFor(size)),
+                size, Invoice::getId);
+    }
 }
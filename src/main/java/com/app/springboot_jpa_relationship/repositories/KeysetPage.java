@@ -0,0 +1,64 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+
+/*
+ * Página de una consulta keyset (seek): en lugar de OFFSET se filtra por
+ * "id > último id visto", de modo que la base de datos entra directamente por
+ * la clave primaria y una página profunda cuesta lo mismo que la primera.
+ *
+ * nextToken es opaco para el cliente (Base64 del último id); es null cuando no
+ * hay más páginas.
+ */
+public record KeysetPage<T>(List<T> content, String nextToken) {
+
+    private static final String PREFIX = "id:";
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    /*
+     * rows debe haberse consultado con size + 1 filas: la fila extra solo indica
+     * que hay otra página y no se devuelve.
+     */
+    static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPage<>(content, encode(idOf.apply(content.get(size - 1))));
+    }
+
+    static Long afterId(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.valueOf(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 o número inválidos: se informa abajo como token inválido
+        }
+        throw new IllegalArgumentException("Token de paginación inválido: " + token);
+    }
+
+    static Limit limitFor(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que 0: " + size);
+        }
+        return Limit.of(size + 1);
+    }
+
+    private static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
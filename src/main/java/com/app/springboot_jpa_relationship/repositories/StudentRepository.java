@@ -3,17 +3,27 @@ package com.app.springboot_jpa_relationship.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app.springboot_jpa_relationship.entities.Course;
 import com.app.springboot_jpa_relationship.entities.Student;
 
-public interface StudentRepository extends CrudRepository<Student, Long> {
+/* Solo lectura por defecto, como ClientRepository */
+@Transactional(readOnly = true)
+public interface StudentRepository extends FetchPlanRepository<Student> {
 
     @Query("select s from Student s left join fetch s.courses where s.id = :id")
     Optional<Student> findOneWithCourse(@Param("id") Long id);
 
     List<Student> findByCoursesContaining(Course course);
+
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    default KeysetPage<Student> findPage(String token, int size) {
+        return KeysetPage.of(findByIdGreaterThanOrderByIdAsc(KeysetPage.afterId(token), KeysetPage.limitFor(size)),
+                size, Student::getId);
+    }
 }
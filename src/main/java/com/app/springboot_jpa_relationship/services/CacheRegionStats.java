@@ -0,0 +1,9 @@
+package com.app.springboot_jpa_relationship.services;
+
+public record CacheRegionStats(String region, long hits, long misses, long puts, long evictions) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
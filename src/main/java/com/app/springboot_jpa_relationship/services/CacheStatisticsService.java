@@ -0,0 +1,74 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import com.app.springboot_jpa_relationship.config.CacheConfig;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Estadísticas de las regiones del caché de segundo nivel. Aciertos, fallos e
+ * inserciones vienen de las estadísticas de Hibernate
+ * (hibernate.generate_statistics); los desalojos solo los conoce el proveedor
+ * de caché y se leen del MBean CacheStatistics que publica JCache para el
+ * CacheManager de este contexto.
+ *
+ * PersistenceMetricsConfig publica estos valores como métricas por región.
+ */
+@Service
+public class CacheStatisticsService {
+
+    public static final List<String> REGIONS = List.of(CacheConfig.COURSES,
+            CacheConfig.COURSES_NATURAL_ID, CacheConfig.CLIENTS_DETAILS, CacheConfig.QUERY_RESULTS,
+            CacheConfig.UPDATE_TIMESTAMPS);
+
+    private final Statistics statistics;
+
+    private final String cacheManagerName;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory, CacheManager jcacheManager) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.cacheManagerName = jcacheManager.getURI().toString();
+    }
+
+    public List<CacheRegionStats> regions() {
+        return REGIONS.stream().map(this::region).toList();
+    }
+
+    public CacheRegionStats region(String region) {
+        CacheRegionStatistics hibernate = statistics.getCacheRegionStatistics(region);
+        long hits = hibernate == null ? 0 : hibernate.getHitCount();
+        long misses = hibernate == null ? 0 : hibernate.getMissCount();
+        long puts = hibernate == null ? 0 : hibernate.getPutCount();
+        return new CacheRegionStats(region, hits, misses, puts, evictions(region));
+    }
+
+    private long evictions(String region) {
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,CacheManager=" + cacheManagerName
+                            + ",Cache=" + region), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) mBeanServer.getAttribute(name, "CacheEvictions");
+            }
+            return evictions;
+        } catch (JMException e) {
+            return 0;
+        }
+    }
+}
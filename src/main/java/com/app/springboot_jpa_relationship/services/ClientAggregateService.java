@@ -0,0 +1,133 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Carga el agregado de un cliente con las tres consultas de findOneAggregate
+ * (detalles, facturas y direcciones) a la vez en lugar de una tras otra, así la
+ * latencia total se acerca a la de la consulta más lenta y no a la suma.
+ *
+ * Cada consulta se ejecuta en un hilo virtual, en su propia transacción de
+ * solo lectura y por tanto con su propio EntityManager y su propia conexión
+ * (con el perfil routing, de una réplica). Una carga usa hasta tres conexiones
+ * del pool a la vez. Las entidades no salen de su transacción: cada parte se
+ * copia a los records de ClientView antes de hacer commit.
+ *
+ * Las tres partes comparten un solo plazo (app.client-aggregate.timeout). Si
+ * alguna no termina a tiempo se cancelan las que siguen en curso (el hilo
+ * virtual se interrumpe y la transacción tiene el mismo timeout) y se lanza
+ * QueryTimeoutException.
+ */
+@Service
+public class ClientAggregateService {
+
+    private final ClientRepository clientRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Duration timeout;
+
+    public ClientAggregateService(ClientRepository clientRepository, PlatformTransactionManager transactionManager,
+            @Value("${app.client-aggregate.timeout:2s}") Duration timeout) {
+        this.clientRepository = clientRepository;
+        this.timeout = timeout;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
+
+    public Optional<ClientView> findClientView(Long id) {
+        Future<Optional<Header>> header = submit(() -> clientRepository.findOneWithClientDetails(id)
+                .map(ClientAggregateService::header));
+        Future<List<ClientView.InvoiceLine>> invoices = submit(() -> clientRepository.findOneWithInvoices(id)
+                .map(ClientAggregateService::invoices)
+                .orElse(List.of()));
+        Future<List<ClientView.AddressLine>> addresses = submit(() -> clientRepository.findOneWithAdresses(id)
+                .map(ClientAggregateService::addresses)
+                .orElse(List.of()));
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            return get(header, deadline).map(h -> new ClientView(id, h.name(), h.lastname(), h.details(),
+                    get(invoices, deadline), get(addresses, deadline)));
+        } finally {
+            header.cancel(true);
+            invoices.cancel(true);
+            addresses.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Supplier<T> query) {
+        return executor.submit(() -> transactionTemplate.execute(status -> query.get()));
+    }
+
+    private <T> T get(Future<T> part, long deadline) {
+        try {
+            return part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("El agregado del cliente no se cargó en " + timeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Error al cargar el agregado del cliente", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido al cargar el agregado del cliente", e);
+        }
+    }
+
+    private static Header header(Client client) {
+        ClientDetails details = client.getClientDetails();
+        return new Header(client.getName(), client.getLastname(),
+                details == null ? null : new ClientView.Details(details.isPremium(), details.getPoints()));
+    }
+
+    private static List<ClientView.InvoiceLine> invoices(Client client) {
+        return client.getInvoices().stream()
+                .map(invoice -> new ClientView.InvoiceLine(invoice.getId(), invoice.getDescription(),
+                        invoice.getTotal()))
+                .sorted(Comparator.comparing(ClientView.InvoiceLine::id))
+                .toList();
+    }
+
+    private static List<ClientView.AddressLine> addresses(Client client) {
+        return client.getAddresses().stream()
+                .map(address -> new ClientView.AddressLine(address.getId(), address.getStreet(),
+                        address.getNumber()))
+                .sorted(Comparator.comparing(ClientView.AddressLine::id))
+                .toList();
+    }
+
+    private record Header(String name, String lastname, ClientView.Details details) {
+    }
+}
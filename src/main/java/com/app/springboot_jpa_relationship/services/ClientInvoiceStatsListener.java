@@ -0,0 +1,287 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Mantiene client_invoice_stats al día con cada cambio de Invoice que pasa por
+ * Hibernate: Client.addInvoice/removeInvoice con cascada y orphanRemoval,
+ * InvoiceRepository.save/delete, la importación masiva, etc.
+ *
+ * Los cambios de una transacción se acumulan por cliente y se aplican una sola
+ * vez antes del commit (después del último flush), con un UPSERT por cliente.
+ * Si la transacción hace rollback no se aplica nada.
+ *
+ * Sumar es siempre incremental; el mínimo y el máximo no se pueden restar, así
+ * que cuando se elimina o cambia una factura se recalculan para ese cliente
+ * (una consulta por el índice de invoices.client_id).
+ *
+ * Los DELETE/UPDATE masivos en JPQL o SQL no generan eventos: después de uno
+ * de ellos hay que ejecutar ClientInvoiceStatsService.rebuild().
+ */
+@Component
+public class ClientInvoiceStatsListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String UPSERT = "INSERT INTO client_invoice_stats "
+            + "(client_id, invoice_count, total_sum, min_total, max_total) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE invoice_count = invoice_count + VALUES(invoice_count), "
+            + "total_sum = total_sum + VALUES(total_sum), "
+            + "min_total = COALESCE(LEAST(min_total, VALUES(min_total)), min_total, VALUES(min_total)), "
+            + "max_total = COALESCE(GREATEST(max_total, VALUES(max_total)), max_total, VALUES(max_total))";
+
+    private static final String RECOMPUTE_EXTREMES = "UPDATE client_invoice_stats SET "
+            + "min_total = (SELECT MIN(total) FROM invoices WHERE client_id = ?), "
+            + "max_total = (SELECT MAX(total) FROM invoices WHERE client_id = ?) WHERE client_id = ?";
+
+    private static final String DELETE = "DELETE FROM client_invoice_stats WHERE client_id = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Map<EventSource, PendingStats> pending = new ConcurrentHashMap<>();
+
+    public ClientInvoiceStatsListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Invoice invoice) {
+            Long clientId = clientId(invoice.getClient());
+            if (clientId != null) {
+                pending(event.getSession()).added(clientId, invoice.getTotal());
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Invoice invoice)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        int clientIndex = persister.getPropertyIndex("client");
+        int totalIndex = persister.getPropertyIndex("total");
+        Long newClientId = clientId(invoice.getClient());
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            /* Sin el estado anterior no se conoce el delta: se recalcula el cliente */
+            if (newClientId != null) {
+                pending(event.getSession()).rebuild(newClientId);
+            }
+            return;
+        }
+        Long oldClientId = clientId(oldState[clientIndex]);
+        Long oldTotal = (Long) oldState[totalIndex];
+        if (Objects.equals(oldClientId, newClientId) && Objects.equals(oldTotal, invoice.getTotal())) {
+            return;
+        }
+        PendingStats stats = pending(event.getSession());
+        stats.written(event.getId(), newClientId, invoice.getTotal());
+        if (oldClientId != null) {
+            stats.removed(oldClientId, oldTotal);
+        }
+        if (newClientId != null) {
+            stats.added(newClientId, invoice.getTotal());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Invoice invoice) {
+            /*
+             * removeInvoice() deja client en null antes del orphanRemoval: el
+             * cliente original está en el estado cargado (deletedState). Si en
+             * el mismo flush Hibernate ejecuta antes un UPDATE con client_id
+             * null, ese UPDATE ya restó la factura y deletedState no lo refleja:
+             * manda el último estado escrito en la transacción.
+             */
+            Object[] state = event.getDeletedState();
+            EntityPersister persister = event.getPersister();
+            Long clientId = state != null
+                    ? clientId(state[persister.getPropertyIndex("client")])
+                    : clientId(invoice.getClient());
+            Long total = state != null ? (Long) state[persister.getPropertyIndex("total")] : invoice.getTotal();
+            PendingStats current = pending.get(event.getSession());
+            Written written = current == null ? null : current.written.get(event.getId());
+            if (written != null) {
+                clientId = written.clientId();
+                total = written.total();
+            }
+            if (clientId != null) {
+                pending(event.getSession()).removed(clientId, total);
+            }
+        } else if (event.getEntity() instanceof Client) {
+            pending(event.getSession()).clientDeleted((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private PendingStats pending(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            PendingStats stats = new PendingStats();
+            s.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> {
+                pending.remove(s);
+                completing.doWork(stats::apply);
+            });
+            s.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> pending.remove(s));
+            return stats;
+        });
+    }
+
+    private static Long clientId(Object client) {
+        return client == null ? null : ((Client) client).getId();
+    }
+
+    /*
+     * Cambios acumulados de una transacción. Solo la usa el hilo de la sesión.
+     */
+    private static class PendingStats {
+
+        private final Map<Long, Delta> deltas = new HashMap<>();
+        private final Map<Object, Written> written = new HashMap<>();
+        private final Set<Long> recomputeExtremes = new HashSet<>();
+        private final Set<Long> rebuild = new HashSet<>();
+        private final Set<Long> deletedClients = new HashSet<>();
+
+        void added(Long clientId, Long total) {
+            Delta delta = deltas.computeIfAbsent(clientId, id -> new Delta());
+            delta.count++;
+            if (total != null) {
+                delta.sum += total;
+                delta.min = delta.min == null ? total : Math.min(delta.min, total);
+                delta.max = delta.max == null ? total : Math.max(delta.max, total);
+            }
+        }
+
+        void written(Object invoiceId, Long clientId, Long total) {
+            written.put(invoiceId, new Written(clientId, total));
+        }
+
+        void removed(Long clientId, Long total) {
+            Delta delta = deltas.computeIfAbsent(clientId, id -> new Delta());
+            delta.count--;
+            if (total != null) {
+                delta.sum -= total;
+            }
+            recomputeExtremes.add(clientId);
+        }
+
+        void rebuild(Long clientId) {
+            rebuild.add(clientId);
+        }
+
+        void clientDeleted(Long clientId) {
+            deletedClients.add(clientId);
+        }
+
+        void apply(Connection connection) throws SQLException {
+            deltas.keySet().removeAll(deletedClients);
+            deltas.keySet().removeAll(rebuild);
+            recomputeExtremes.removeAll(deletedClients);
+            recomputeExtremes.removeAll(rebuild);
+            rebuild.removeAll(deletedClients);
+
+            if (!deltas.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+                    for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+                        Delta delta = entry.getValue();
+                        statement.setLong(1, entry.getKey());
+                        statement.setLong(2, delta.count);
+                        statement.setLong(3, delta.sum);
+                        setNullableLong(statement, 4, delta.min);
+                        setNullableLong(statement, 5, delta.max);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            if (!recomputeExtremes.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(RECOMPUTE_EXTREMES)) {
+                    for (Long clientId : recomputeExtremes) {
+                        statement.setLong(1, clientId);
+                        statement.setLong(2, clientId);
+                        statement.setLong(3, clientId);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            for (Long clientId : rebuild) {
+                ClientInvoiceStatsService.rebuildClient(connection, clientId);
+            }
+            if (!deletedClients.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+                    for (Long clientId : deletedClients) {
+                        statement.setLong(1, clientId);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+        }
+
+        private static void setNullableLong(PreparedStatement statement, int index, Long value)
+                throws SQLException {
+            if (value == null) {
+                statement.setNull(index, Types.BIGINT);
+            } else {
+                statement.setLong(index, value);
+            }
+        }
+    }
+
+    /* Cliente y total de la última UPDATE de una factura en la transacción */
+    private record Written(Long clientId, Long total) {
+    }
+
+    private static class Delta {
+        long count;
+        long sum;
+        Long min;
+        Long max;
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.springboot_jpa_relationship.entities.ClientInvoiceStats;
+import com.app.springboot_jpa_relationship.repositories.ClientInvoiceStatsRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Lectura, reconstrucción y verificación de client_invoice_stats.
+ */
+@Service
+public class ClientInvoiceStatsService {
+
+    private static final String AGGREGATE = "SELECT client_id, COUNT(*) AS invoice_count, "
+            + "COALESCE(SUM(total), 0) AS total_sum, MIN(total) AS min_total, MAX(total) AS max_total FROM invoices";
+
+    private static final String REBUILD_CLIENT = "REPLACE INTO client_invoice_stats "
+            + "(client_id, invoice_count, total_sum, min_total, max_total) " + AGGREGATE
+            + " WHERE client_id = ? GROUP BY client_id";
+
+    /*
+     * Clientes cuyos totales no coinciden con las facturas: filas que faltan o
+     * difieren y filas con facturas que ya no existen. La comparación trata dos
+     * NULL como iguales; se escribe con IS NULL porque <=> es propio de MariaDB
+     * y MariaDB no tiene IS NOT DISTINCT FROM.
+     */
+    private static final String INCONSISTENT = "SELECT a.client_id FROM (" + AGGREGATE
+            + " WHERE client_id IS NOT NULL GROUP BY client_id) a "
+            + "LEFT JOIN client_invoice_stats s ON s.client_id = a.client_id "
+            + "WHERE s.client_id IS NULL OR NOT (" + sameValue("invoice_count") + " AND " + sameValue("total_sum")
+            + " AND " + sameValue("min_total") + " AND " + sameValue("max_total") + ") "
+            + "UNION SELECT s.client_id FROM client_invoice_stats s WHERE s.invoice_count <> 0 "
+            + "AND NOT EXISTS (SELECT 1 FROM invoices i WHERE i.client_id = s.client_id) "
+            + "ORDER BY 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ClientInvoiceStatsRepository clientInvoiceStatsRepository;
+
+    public ClientInvoiceStatsService(ClientInvoiceStatsRepository clientInvoiceStatsRepository) {
+        this.clientInvoiceStatsRepository = clientInvoiceStatsRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ClientInvoiceStats> findByClientId(Long clientId) {
+        return clientInvoiceStatsRepository.findById(clientId);
+    }
+
+    /*
+     * Reconstruye la tabla completa a partir de invoices. Devuelve el número de
+     * clientes con facturas.
+     */
+    @Transactional
+    public int rebuild() {
+        entityManager.createNativeQuery("DELETE FROM client_invoice_stats").executeUpdate();
+        return entityManager.createNativeQuery("INSERT INTO client_invoice_stats "
+                + "(client_id, invoice_count, total_sum, min_total, max_total) " + AGGREGATE
+                + " WHERE client_id IS NOT NULL GROUP BY client_id").executeUpdate();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findInconsistentClients() {
+        List<?> rows = entityManager.createNativeQuery(INCONSISTENT).getResultList();
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
+
+    private static String sameValue(String column) {
+        return "(s." + column + " = a." + column + " OR (s." + column + " IS NULL AND a." + column + " IS NULL))";
+    }
+
+    static void rebuildClient(Connection connection, Long clientId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(REBUILD_CLIENT)) {
+            statement.setLong(1, clientId);
+            if (statement.executeUpdate() == 0) {
+                try (PreparedStatement delete = connection
+                        .prepareStatement("DELETE FROM client_invoice_stats WHERE client_id = ?")) {
+                    delete.setLong(1, clientId);
+                    delete.executeUpdate();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.util.List;
+
+/*
+ * Vista inmutable de un cliente completo: sus datos, detalles, facturas y
+ * direcciones copiados de las entidades. No tiene proxies ni colecciones
+ * perezosas, así que se puede usar fuera de la transacción y desde cualquier
+ * hilo. details es null si el cliente no tiene ClientDetails.
+ */
+public record ClientView(Long id, String name, String lastname, Details details, List<InvoiceLine> invoices,
+        List<AddressLine> addresses) {
+
+    public ClientView {
+        invoices = List.copyOf(invoices);
+        addresses = List.copyOf(addresses);
+    }
+
+    public record Details(Boolean premium, Integer points) {
+    }
+
+    public record InvoiceLine(Long id, String description, Long total) {
+    }
+
+    public record AddressLine(Long id, String street, Integer number) {
+    }
+}
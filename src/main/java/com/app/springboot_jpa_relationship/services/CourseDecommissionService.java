@@ -0,0 +1,78 @@
+package com.app.springboot_jpa_relationship.services;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Elimina un curso borrando primero sus filas de tbl_students_courses en
+ * bloques de chunkSize filas, cada bloque en su propia transacción, y después
+ * el curso. Los estudiantes no se modifican.
+ *
+ * Cada DELETE usa el índice de la clave foránea id_course y bloquea como mucho
+ * chunkSize filas durante poco tiempo. Si el proceso se interrumpe basta con
+ * volver a llamar a decommission: continúa con las filas que queden. La última
+ * transacción borra las inscripciones que se hayan añadido mientras tanto y el
+ * curso, así el curso nunca desaparece dejando filas huérfanas.
+ */
+@Service
+public class CourseDecommissionService {
+
+    private static final String JOIN_TABLE = "tbl_students_courses";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CourseRepository courseRepository;
+
+    @Value("${app.decommission.chunk-size:5000}")
+    private int chunkSize;
+
+    public CourseDecommissionService(PlatformTransactionManager transactionManager,
+            CourseRepository courseRepository) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.courseRepository = courseRepository;
+    }
+
+    /*
+     * Devuelve el número de inscripciones eliminadas.
+     */
+    public long decommission(Long courseId) {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> deleteEnrollments(courseId));
+            deleted += chunk;
+        } while (chunk == chunkSize);
+
+        deleted += transactionTemplate.execute(status -> {
+            long remaining = 0;
+            int last;
+            do {
+                last = deleteEnrollments(courseId);
+                remaining += last;
+            } while (last == chunkSize);
+            courseRepository.deleteById(courseId);
+            return remaining;
+        });
+        return deleted;
+    }
+
+    private int deleteEnrollments(Long courseId) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery("DELETE FROM " + JOIN_TABLE + " WHERE id_course = ?1 LIMIT " + chunkSize,
+                        Object.class)
+                .addSynchronizedQuerySpace(JOIN_TABLE)
+                .setParameter(1, courseId)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,82 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Inscripción masiva de estudiantes en cursos escribiendo directamente en
+ * tbl_students_courses, sin cargar Student ni Course ni inicializar sus
+ * colecciones (Student.addCourse carga Course.students completo).
+ *
+ * Se usan INSERT IGNORE de varias filas: los pares que ya existen chocan con la
+ * restricción única (id_student, id_course) y se omiten. INSERT IGNORE también
+ * omite los pares cuyo estudiante o curso no existe.
+ *
+ * La consulta declara tbl_students_courses como espacio sincronizado, así
+ * Hibernate hace flush antes si hace falta e invalida al ejecutarla el caché de
+ * consultas y las regiones de caché de las colecciones mapeadas a esa tabla.
+ * Las colecciones Student.courses/Course.students que ya estén cargadas en el
+ * contexto de persistencia de la transacción actual no se actualizan.
+ */
+@Service
+public class EnrollmentService {
+
+    private static final String JOIN_TABLE = "tbl_students_courses";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.enrollment.chunk-size:500}")
+    private int chunkSize;
+
+    /*
+     * Inscribe cada estudiante en cada curso. Devuelve el número de
+     * inscripciones nuevas.
+     */
+    @Transactional
+    public int enroll(Collection<Long> studentIds, Collection<Long> courseIds) {
+        List<long[]> pairs = new ArrayList<>();
+        for (Long courseId : new LinkedHashSet<>(courseIds)) {
+            for (Long studentId : new LinkedHashSet<>(studentIds)) {
+                pairs.add(new long[] { studentId, courseId });
+            }
+        }
+        Session session = entityManager.unwrap(Session.class);
+        int inserted = 0;
+        for (int from = 0; from < pairs.size(); from += chunkSize) {
+            List<long[]> chunk = pairs.subList(from, Math.min(from + chunkSize, pairs.size()));
+            NativeQuery<?> insert = session.createNativeQuery(insertSql(chunk.size()), Object.class)
+                    .addSynchronizedQuerySpace(JOIN_TABLE);
+            int position = 1;
+            for (long[] pair : chunk) {
+                insert.setParameter(position++, pair[0]);
+                insert.setParameter(position++, pair[1]);
+            }
+            inserted += insert.executeUpdate();
+        }
+        return inserted;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT IGNORE INTO ").append(JOIN_TABLE)
+                .append(" (id_student, id_course) VALUES ");
+        for (int row = 0, position = 1; row < rows; row++, position += 2) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?").append(position).append(", ?").append(position + 1).append(")");
+        }
+        return sql.toString();
+    }
+}
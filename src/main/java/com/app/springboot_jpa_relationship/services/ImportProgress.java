@@ -0,0 +1,17 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.time.Duration;
+
+public record ImportProgress(long records, Duration elapsed) {
+
+    public double recordsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : records * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d facturas importadas en %.3fs (%.0f facturas/s)",
+                records, elapsed.toNanos() / 1_000_000_000.0, recordsPerSecond());
+    }
+}
@@ -0,0 +1,96 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Agrega facturas a un cliente desde varios hilos a la vez.
+ *
+ * Client.addInvoice + clientRepository.save modifica Client.invoices, y con
+ * @Version eso incrementa la versión del cliente: dos hilos que agregan al
+ * mismo cliente chocan y uno falla. Aquí la factura se inserta con una
+ * referencia al cliente (getReference, sin SELECT) y no se toca la fila de
+ * clients, así que solo hay un INSERT en invoices (y la actualización de
+ * client_invoice_stats).
+ *
+ * Los conflictos que quedan (bloqueos de filas, deadlocks, versiones) se
+ * reintentan en una transacción nueva hasta maxAttempts veces, esperando un
+ * tiempo aleatorio que crece con cada intento.
+ */
+@Service
+public class InvoiceAppendService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.invoice-append.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.invoice-append.backoff-ms:5}")
+    private long backoffMillis;
+
+    public InvoiceAppendService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Invoice append(Long clientId, String description, Long total) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> persist(clientId, new Invoice(description, total)));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    /*
+     * Agrega la factura en la transacción actual, sin reintentos. El cliente es
+     * una referencia: si ya está cargado en esta transacción se usa
+     * Client.appendInvoice (que actualiza invoices solo si ya estaba cargada);
+     * si no, no se ejecuta ningún SELECT. La factura se agrega a invoices
+     * después del persist, cuando ya tiene id (Invoice.hashCode lo incluye).
+     */
+    @Transactional
+    public Invoice append(Long clientId, Invoice invoice) {
+        return persist(clientId, invoice);
+    }
+
+    private Invoice persist(Long clientId, Invoice invoice) {
+        Client client = entityManager.getReference(Client.class, clientId);
+        invoice.setClient(client);
+        entityManager.persist(invoice);
+        if (Hibernate.isInitialized(client)) {
+            client.appendInvoice(invoice);
+        }
+        return invoice;
+    }
+
+    private void backoff(int attempt) {
+        long bound = backoffMillis << Math.min(attempt, 10);
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido al reintentar la factura", e);
+        }
+    }
+}
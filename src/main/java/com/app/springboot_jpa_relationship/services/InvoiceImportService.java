@@ -0,0 +1,176 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Importación masiva de facturas desde CSV (client_id,description,total) o
+ * JSONL ({"clientId":1,"description":"...","total":5000}).
+ *
+ * El archivo se lee línea a línea y se procesa en bloques de chunkSize
+ * registros. Cada bloque va en su propia transacción y termina con flush() y
+ * clear(), así el contexto de persistencia nunca tiene más de chunkSize
+ * facturas y el uso de memoria no depende del tamaño del archivo.
+ *
+ * El cliente se asocia con getReference(): Hibernate crea un proxy con el id
+ * sin ejecutar ningún SELECT. Si el cliente no existe el error lo da la clave
+ * foránea al hacer flush del bloque.
+ */
+@Service
+public class InvoiceImportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${app.import.chunk-size:${app.jdbc.batch-size}}")
+    private int chunkSize;
+
+    public InvoiceImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportProgress importFile(Path path, Consumer<ImportProgress> listener) {
+        boolean jsonLines = path.getFileName().toString().endsWith(".jsonl");
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return jsonLines ? importJsonLines(reader, listener) : importCsv(reader, listener);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ImportProgress importCsv(BufferedReader reader, Consumer<ImportProgress> listener) {
+        return importLines(reader, listener, this::parseCsv);
+    }
+
+    public ImportProgress importJsonLines(BufferedReader reader, Consumer<ImportProgress> listener) {
+        return importLines(reader, listener, this::parseJson);
+    }
+
+    private ImportProgress importLines(BufferedReader reader, Consumer<ImportProgress> listener,
+            LineParser parser) {
+        List<InvoiceRecord> chunk = new ArrayList<>(chunkSize);
+        long start = System.nanoTime();
+        long imported = 0;
+        long reported = -1;
+        long lineNumber = 0;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                InvoiceRecord record = parser.parse(line, lineNumber);
+                if (record == null) {
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    imported += persistChunk(chunk);
+                    listener.accept(new ImportProgress(imported, Duration.ofNanos(System.nanoTime() - start)));
+                    reported = imported;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            imported += persistChunk(chunk);
+        }
+        ImportProgress result = new ImportProgress(imported, Duration.ofNanos(System.nanoTime() - start));
+        /* Si el último registro completó un bloque, ese total ya se informó */
+        if (imported != reported) {
+            listener.accept(result);
+        }
+        return result;
+    }
+
+    private int persistChunk(List<InvoiceRecord> chunk) {
+        int size = chunk.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (InvoiceRecord record : chunk) {
+                Invoice invoice = new Invoice(record.description(), record.total());
+                invoice.setClient(entityManager.getReference(Client.class, record.clientId()));
+                entityManager.persist(invoice);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        chunk.clear();
+        return size;
+    }
+
+    /*
+     * La descripción va entre la primera y la última coma, de modo que puede
+     * contener comas. Una cabecera (primera columna no numérica) se ignora.
+     */
+    private InvoiceRecord parseCsv(String line, long lineNumber) {
+        int first = line.indexOf(',');
+        int last = line.lastIndexOf(',');
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": se esperaban 3 columnas: " + line);
+        }
+        String clientId = line.substring(0, first).trim();
+        if (lineNumber == 1 && !clientId.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        String description = unquote(line.substring(first + 1, last).trim());
+        String total = line.substring(last + 1).trim();
+        try {
+            return new InvoiceRecord(Long.valueOf(clientId), description, Long.valueOf(total));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": número inválido: " + line, e);
+        }
+    }
+
+    private InvoiceRecord parseJson(String line, long lineNumber) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.hasNonNull("clientId") || !node.hasNonNull("total")) {
+                throw new IllegalArgumentException("Línea " + lineNumber + ": faltan clientId o total: " + line);
+            }
+            return new InvoiceRecord(node.get("clientId").asLong(), node.path("description").asText(null),
+                    node.get("total").asLong());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": JSON inválido: " + line, e);
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        InvoiceRecord parse(String line, long lineNumber);
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.springboot_jpa_relationship.services;
+
+/*
+ * Una fila del archivo de importación: la factura solo conoce el id del
+ * cliente, nunca la entidad Client completa.
+ */
+public record InvoiceRecord(Long clientId, String description, Long total) {
+
+}
@@ -0,0 +1,336 @@
+package com.app.springboot_jpa_relationship.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Acumula en memoria los puntos de fidelidad (ClientDetails.points) de cada
+ * compra y los escribe en la base de datos cada app.points.flush-interval. En
+ * lugar de cargar ClientDetails, cambiar points y guardarlo por cada evento,
+ * los 10.000 eventos de un cliente entre dos vaciados son un solo
+ * UPDATE clients_details SET points = points + ? sobre su fila.
+ *
+ * - Cada cliente tiene un LongAdder: los hilos que suman al mismo cliente no
+ *   compiten por un solo contador. Al vaciar se lee la suma y se resta ese
+ *   mismo valor, así lo que se suma mientras tanto queda para el siguiente
+ *   vaciado y no se pierde. Los contadores no se eliminan del mapa (eliminar
+ *   uno mientras otro hilo le suma perdería esa suma): hay uno por cliente que
+ *   haya recibido puntos.
+ * - Antes de tocar la base de datos el lote se escribe en un archivo de
+ *   app.points.spill-dir (con fsync). Se aplica en una transacción con
+ *   sentencias por lotes de JDBC que también inserta el id del lote en
+ *   applied_points_batches, y después se borra el archivo. Al arrancar, o
+ *   cuando falla la base de datos, los archivos que quedan se vuelven a
+ *   aplicar en el siguiente vaciado, y los que ya habían hecho commit se
+ *   saltan.
+ * - Lo que se pierde en una caída es lo que aún estaba solo en memoria: como
+ *   mucho app.points.flush-interval de eventos. Si se acumulan más de
+ *   app.points.max-pending-events eventos se adelanta el vaciado.
+ *
+ * El UPDATE incrementa version, así una edición concurrente de ClientDetails
+ * con JPA falla por bloqueo optimista en lugar de pisar los puntos, y al
+ * aplicar un lote se invalida la región de ClientDetails del caché de segundo
+ * nivel. Los puntos de clientes sin ClientDetails se descartan. Cada instancia
+ * de la aplicación necesita su propio directorio de derrame.
+ */
+@Service
+public class LoyaltyPointsAccumulator {
+
+    private static final String UPDATE = "UPDATE clients_details SET points = points + ?, version = version + 1 "
+            + "WHERE client_id = ?";
+
+    private static final String APPLIED = "SELECT COUNT(*) FROM applied_points_batches WHERE batch_id = ?";
+
+    private static final String MARK_APPLIED = "INSERT INTO applied_points_batches (batch_id, applied_at) "
+            + "VALUES (?, ?)";
+
+    private static final String PRUNE = "DELETE FROM applied_points_batches WHERE applied_at < ?";
+
+    private static final String SPILL_SUFFIX = ".points";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder pendingEvents = new LongAdder();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter updatedRows;
+
+    private final Counter failures;
+
+    private ScheduledExecutorService scheduler;
+
+    @Value("${app.points.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${app.points.max-pending-events:10000}")
+    private long maxPendingEvents;
+
+    @Value("${app.points.spill-dir:points-spill}")
+    private Path spillDir;
+
+    /* Tiempo que se conservan los ids de los lotes aplicados */
+    @Value("${app.points.applied-retention:7d}")
+    private Duration appliedRetention;
+
+    @Value("${app.jdbc.batch-size:50}")
+    private int batchSize;
+
+    public LoyaltyPointsAccumulator(EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.updatedRows = Counter.builder("points.write_behind.rows")
+                .description("Filas de clients_details actualizadas al vaciar los puntos")
+                .register(meterRegistry);
+        this.failures = Counter.builder("points.write_behind.failures")
+                .description("Vaciados de puntos fallidos; los lotes quedan en disco")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("points-flush")
+                .daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush, 0, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /* Vacía lo pendiente antes de cerrar; si falla, los lotes quedan en disco */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        scheduledFlush();
+    }
+
+    public void add(Long clientId, long points) {
+        pending.computeIfAbsent(clientId, id -> new LongAdder()).add(points);
+        pendingEvents.increment();
+        if (pendingEvents.sum() >= maxPendingEvents && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::scheduledFlush);
+        }
+    }
+
+    /* Puntos del cliente que todavía no se escribieron en la base de datos */
+    public long pendingPoints(Long clientId) {
+        LongAdder points = pending.get(clientId);
+        return points == null ? 0 : points.sum();
+    }
+
+    /*
+     * Escribe lo pendiente en un archivo de derrame y aplica todos los archivos
+     * del directorio. Devuelve las filas de clients_details actualizadas.
+     */
+    public synchronized int flush() {
+        Map<Long, Long> batch = drain();
+        if (!batch.isEmpty()) {
+            try {
+                spill(batch);
+            } catch (UncheckedIOException e) {
+                batch.forEach((clientId, points) -> pending.get(clientId).add(points));
+                throw e;
+            }
+        }
+        int updated = 0;
+        for (Path file : spillFiles()) {
+            updated += apply(file);
+        }
+        return updated;
+    }
+
+    private void scheduledFlush() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            failures.increment();
+        }
+    }
+
+    /* Ordenado por cliente: todas las transacciones actualizan las filas en el mismo orden */
+    private Map<Long, Long> drain() {
+        pendingEvents.reset();
+        Map<Long, Long> batch = new TreeMap<>();
+        pending.forEach((clientId, adder) -> {
+            long points = adder.sum();
+            if (points != 0) {
+                adder.add(-points);
+                batch.put(clientId, points);
+            }
+        });
+        return batch;
+    }
+
+    /*
+     * Se escribe en un archivo temporal y se renombra: un archivo .points está
+     * siempre completo.
+     */
+    private void spill(Map<Long, Long> batch) {
+        String batchId = UUID.randomUUID().toString();
+        StringBuilder lines = new StringBuilder();
+        batch.forEach((clientId, points) -> lines.append(clientId).append(' ').append(points).append('\n'));
+        try {
+            Files.createDirectories(spillDir);
+            Path temp = spillDir.resolve(batchId + TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, spillDir.resolve(batchId + SPILL_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Archivos pendientes. Un .tmp es un derrame interrumpido por una caída:
+     * esos puntos ya se habían perdido y el archivo se borra.
+     */
+    private List<Path> spillFiles() {
+        if (!Files.isDirectory(spillDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(spillDir)) {
+            List<Path> all = files.sorted().toList();
+            for (Path file : all) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                }
+            }
+            return all.stream().filter(file -> file.getFileName().toString().endsWith(SPILL_SUFFIX)).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int apply(Path file) {
+        String name = file.getFileName().toString();
+        String batchId = name.substring(0, name.length() - SPILL_SUFFIX.length());
+        Map<Long, Long> batch = read(file);
+        Integer updated = transactionTemplate.execute(status -> entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> applyBatch(connection, batchId, batch)));
+        entityManagerFactory.getCache().evict(ClientDetails.class);
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        updatedRows.increment(updated);
+        return updated;
+    }
+
+    private int applyBatch(Connection connection, String batchId, Map<Long, Long> batch) throws SQLException {
+        try (PreparedStatement applied = connection.prepareStatement(APPLIED)) {
+            applied.setString(1, batchId);
+            try (ResultSet result = applied.executeQuery()) {
+                if (result.next() && result.getLong(1) > 0) {
+                    return 0;
+                }
+            }
+        }
+        int updated = 0;
+        try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            int statements = 0;
+            for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+                update.setLong(1, entry.getValue());
+                update.setLong(2, entry.getKey());
+                update.addBatch();
+                if (++statements % batchSize == 0) {
+                    updated += rows(update.executeBatch());
+                }
+            }
+            if (statements % batchSize != 0) {
+                updated += rows(update.executeBatch());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement mark = connection.prepareStatement(MARK_APPLIED)) {
+            mark.setString(1, batchId);
+            mark.setTimestamp(2, Timestamp.valueOf(now));
+            mark.executeUpdate();
+        }
+        try (PreparedStatement prune = connection.prepareStatement(PRUNE)) {
+            prune.setTimestamp(1, Timestamp.valueOf(now.minus(appliedRetention)));
+            prune.executeUpdate();
+        }
+        return updated;
+    }
+
+    private static Map<Long, Long> read(Path file) {
+        Map<Long, Long> batch = new TreeMap<>();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    String[] parts = line.trim().split(" ");
+                    batch.merge(Long.valueOf(parts[0]), Long.valueOf(parts[1]), Long::sum);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return batch;
+    }
+
+    /* Con rewriteBatchedStatements el driver puede devolver SUCCESS_NO_INFO (-2) */
+    private static int rows(int[] counts) {
+        int rows = 0;
+        for (int count : counts) {
+            rows += Math.max(count, 0);
+        }
+        return rows;
+    }
+}
@@ -1,5 +1,9 @@
-INSERT INTO clients (name, lastname) VALUES ('Daniel', 'Santiago');
-INSERT INTO clients (name, lastname) VALUES ('Yosef', 'García');
+INSERT INTO clients (id, name, lastname, version) VALUES (1, 'Daniel', 'Santiago', 0);
+INSERT INTO clients (id, name, lastname, version) VALUES (2, 'Yosef', 'García', 0);
 
-INSERT INTO students (name, lastname) VALUES ('Lionel', 'Messi');
-INSERT INTO students (name, lastname) VALUES ('Cristiano', 'Ronaldo');
\ No newline at end of file
+INSERT INTO students (id, name, lastname) VALUES (1, 'Lionel', 'Messi');
+INSERT INTO students (id, name, lastname) VALUES (2, 'Cristiano', 'Ronaldo');
+
+-- Los ids ya no son AUTO_INCREMENT: se reinician las secuencias después de los datos iniciales
+ALTER SEQUENCE clients_seq RESTART WITH 3;
+ALTER SEQUENCE students_seq RESTART WITH 3;
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.app.springboot_jpa_relationship.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * En los tests Spring Boot no exporta métricas: el MeterRegistry del contexto
+ * es un SimpleMeterRegistry y se leen de él los timers de los repositorios.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PersistenceMetricsConfigTests {
+
+	private static final String INVOCATIONS = "spring.data.repository.invocations";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void repositoryTimersAreTaggedByRepositoryMethodAndOutcome() {
+		assertInstanceOf(SimpleMeterRegistry.class, meterRegistry);
+		Long id = courseRepository.save(new Course("Métricas " + UUID.randomUUID(), "Pepito")).getId();
+		long successes = count("SUCCESS", "none");
+		long errors = count("ERROR", "IllegalArgumentException");
+
+		courseRepository.findById(id).orElseThrow();
+		assertThrows(InvalidDataAccessApiUsageException.class, () -> courseRepository.findById(null));
+
+		assertEquals(successes + 1, count("SUCCESS", "none"));
+		assertEquals(errors + 1, count("ERROR", "IllegalArgumentException"));
+	}
+
+	@Test
+	void theHitRatioGaugeFollowsTheHibernateStatistics() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		new PersistenceMetricsConfig().secondLevelCacheHitRatio(entityManagerFactory).bindTo(registry);
+		Long id = courseRepository.save(new Course("Métricas " + UUID.randomUUID(), "Pepito")).getId();
+		entityManagerFactory.getCache().evict(Course.class);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		courseRepository.findById(id).orElseThrow();
+		courseRepository.findById(id).orElseThrow();
+
+		assertEquals(1, statistics.getSecondLevelCacheHitCount());
+		assertEquals(1, statistics.getSecondLevelCacheMissCount());
+		assertEquals(0.5, registry.get("hibernate.second.level.cache.hit.ratio").gauge().value());
+	}
+
+	private long count(String outcome, String exception) {
+		Timer timer = meterRegistry.find(INVOCATIONS).tags("repository", "CourseRepository", "method", "findById",
+				"outcome", outcome, "exception", exception).timer();
+		return timer == null ? 0 : timer.count();
+	}
+}
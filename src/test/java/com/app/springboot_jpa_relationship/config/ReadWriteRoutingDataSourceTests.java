@@ -0,0 +1,153 @@
+package com.app.springboot_jpa_relationship.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Tres bases H2 en memoria independientes hacen de primario y réplicas; cada
+ * consulta devuelve el nombre de la base que la atendió.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+	private final HikariDataSource primary = pool("primary");
+
+	private final HikariDataSource replica1 = pool("replica1");
+
+	private final HikariDataSource replica2 = pool("replica2");
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void closePools() {
+		primary.close();
+		replica1.close();
+		replica2.close();
+	}
+
+	@Test
+	void writesGoToThePrimary() {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO);
+
+		double before = routed("primary");
+		assertEquals("primary", routing.write());
+		assertEquals(before + 1, routed("primary"));
+	}
+
+	@Test
+	void aTransactionIsCountedOnceWhateverItsStatements() {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO);
+
+		double before = routed("primary");
+		routing.write.execute(status -> routing.database() + routing.database());
+		assertEquals(before + 1, routed("primary"));
+	}
+
+	@Test
+	void readOnlyTransactionsAlternateBetweenReplicas() {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO);
+
+		assertEquals("replica1", routing.read());
+		assertEquals("replica2", routing.read());
+		assertEquals("replica1", routing.read());
+	}
+
+	@Test
+	void readsAfterAWriteStayOnThePrimaryWithinTheWindow() {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofMinutes(1));
+
+		routing.write();
+		assertEquals("primary", routing.read());
+	}
+
+	@Test
+	void aRolledBackWriteDoesNotKeepReadsOnThePrimary() {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofMinutes(1));
+
+		routing.write.execute(status -> {
+			status.setRollbackOnly();
+			return routing.database();
+		});
+		assertEquals("replica1", routing.read());
+	}
+
+	@Test
+	void onPrimaryForcesThePrimaryForReads() {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO);
+
+		assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(routing::read));
+	}
+
+	@Test
+	void leastBusyPicksTheReplicaWithFewerActiveConnections() throws Exception {
+		Routing routing = routing(ReadWriteRoutingDataSource.Strategy.LEAST_BUSY, Duration.ZERO);
+
+		try (Connection busy = replica1.getConnection()) {
+			assertEquals("replica2", routing.read());
+			assertEquals("replica2", routing.read());
+		}
+	}
+
+	private Routing routing(ReadWriteRoutingDataSource.Strategy strategy, Duration readYourWritesWindow) {
+		DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary,
+				List.of(replica1, replica2), strategy, readYourWritesWindow, meterRegistry));
+		return new Routing(dataSource);
+	}
+
+	private double routed(String route) {
+		return meterRegistry.get("datasource.routing.transactions").tag("route", route).counter().count();
+	}
+
+	private static HikariDataSource pool(String database) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+		pool.setUsername("sa");
+		pool.setPoolName(database);
+		return pool;
+	}
+
+	private static final class Routing {
+
+		private final JdbcTemplate jdbcTemplate;
+
+		private final TransactionTemplate write;
+
+		private final TransactionTemplate read;
+
+		Routing(DataSource dataSource) {
+			DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+			this.jdbcTemplate = new JdbcTemplate(dataSource);
+			this.write = new TransactionTemplate(transactionManager);
+			this.read = new TransactionTemplate(transactionManager);
+			this.read.setReadOnly(true);
+		}
+
+		String write() {
+			return write.execute(status -> database());
+		}
+
+		String read() {
+			return read.execute(status -> database());
+		}
+
+		private String database() {
+			return jdbcTemplate.queryForObject("select database()", String.class).toLowerCase(Locale.ROOT);
+		}
+	}
+}
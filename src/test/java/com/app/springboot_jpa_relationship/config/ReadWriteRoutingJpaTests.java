@@ -0,0 +1,75 @@
+package com.app.springboot_jpa_relationship.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+
+/*
+ * Perfil routing con JpaTransactionManager: el primario es la base H2 del
+ * contexto y la réplica otra base H2 con el mismo esquema. Un cliente que solo
+ * existe en la réplica muestra a qué base fue cada lectura.
+ */
+@SpringBootTest(properties = { "app.test.database=" + ReadWriteRoutingJpaTests.PRIMARY,
+		"app.routing.replicas=" + ReadWriteRoutingJpaTests.REPLICA_URL, "app.routing.read-your-writes-window=0s" })
+@ActiveProfiles({ "test", "routing" })
+class ReadWriteRoutingJpaTests {
+
+	static final String PRIMARY = "db_routing_primary_test";
+
+	static final String REPLICA_URL = "jdbc:h2:mem:db_routing_replica_test;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final String PRIMARY_URL = "jdbc:h2:mem:" + PRIMARY + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final long REPLICA_ONLY = 900_000L;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	@BeforeEach
+	void copySchemaToTheReplica() {
+		Integer tables = replica.queryForObject(
+				"select count(*) from information_schema.tables where table_name = 'clients'", Integer.class);
+		if (tables == 0) {
+			String schema = Path.of("target", "routing-schema.sql").toAbsolutePath().toString();
+			primary.execute("script nodata to '" + schema + "'");
+			replica.execute("runscript from '" + schema + "'");
+		}
+		replica.update("delete from clients where id = ?", REPLICA_ONLY);
+		replica.update("insert into clients (id, name, lastname, version) values (?, 'Solo', 'Réplica', 0)",
+				REPLICA_ONLY);
+	}
+
+	@Test
+	void repositoryFindsGoToTheReplica() {
+		assertEquals("Réplica", clientRepository.findById(REPLICA_ONLY).orElseThrow().getLastname());
+		assertEquals("Réplica",
+				clientRepository.findOneWithClientDetails(REPLICA_ONLY).orElseThrow().getLastname());
+	}
+
+	@Test
+	void repositorySavesGoToThePrimary() {
+		Long id = clientRepository.save(new Client("Solo", "Primario")).getId();
+
+		assertEquals(1, count(primary, id));
+		assertEquals(0, count(replica, id));
+	}
+
+	private static int count(JdbcTemplate database, Long id) {
+		return database.queryForObject("select count(*) from clients where id = ?", Integer.class, id);
+	}
+}
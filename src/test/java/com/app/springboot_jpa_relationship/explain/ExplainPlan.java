@@ -0,0 +1,35 @@
+package com.app.springboot_jpa_relationship.explain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Resultado de EXPLAIN FORMAT=JSON de MariaDB. Un problema es una tabla leída
+ * completa (access_type ALL) o un ordenamiento sin índice (filesort).
+ */
+record ExplainPlan(String sql, JsonNode plan) {
+
+	static final String FULL_SCAN = "full table scan";
+
+	static final String FILESORT = "filesort";
+
+	List<String> problems() {
+		List<String> problems = new ArrayList<>();
+		collect(plan, problems);
+		return problems;
+	}
+
+	private static void collect(JsonNode node, List<String> problems) {
+		if (node.isObject()) {
+			if ("ALL".equals(node.path("access_type").asText())) {
+				problems.add(FULL_SCAN + " en " + node.path("table_name").asText("?"));
+			}
+			if (node.has("filesort") || node.path("using_filesort").asBoolean()) {
+				problems.add(FILESORT);
+			}
+		}
+		node.elements().forEachRemaining(child -> collect(child, problems));
+	}
+}
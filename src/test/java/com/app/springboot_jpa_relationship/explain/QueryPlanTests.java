@@ -0,0 +1,316 @@
+package com.app.springboot_jpa_relationship.explain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.repositories.ClientDetailsRepository;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.ClientSummary;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+import com.app.springboot_jpa_relationship.repositories.FetchPlanRepository;
+import com.app.springboot_jpa_relationship.repositories.InvoiceRepository;
+import com.app.springboot_jpa_relationship.repositories.StudentRepository;
+import com.app.springboot_jpa_relationship.sql.SqlStatementRecorder;
+import com.app.springboot_jpa_relationship.sql.SqlStatementRecorderConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Ejecuta cada consulta de los repositorios, guarda el SQL que genera Hibernate
+ * y lo pasa por EXPLAIN FORMAT=JSON en una MariaDB local con datos suficientes
+ * para que el optimizador use los índices. Falla si alguna consulta lee una
+ * tabla completa o necesita un filesort que no esté permitido explícitamente.
+ *
+ * Los planes quedan en target/query-plans/ para comparar entre versiones.
+ *
+ * Solo se ejecuta con -Dexplain=true (perfil explain de Maven).
+ */
+@SpringBootTest
+@ActiveProfiles({ "test", "explain" })
+@Import(SqlStatementRecorderConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "explain", matches = "true")
+class QueryPlanTests {
+
+	private static final int CLIENTS = 5_000;
+
+	private static final int INVOICES_PER_CLIENT = 10;
+
+	private static final int STUDENTS = 5_000;
+
+	private static final int COURSES = 200;
+
+	private static final int COURSES_PER_STUDENT = 5;
+
+	private static final long FIRST_ID = 1_000;
+
+	private static final long CLIENT = FIRST_ID + CLIENTS / 2;
+
+	private static final long STUDENT = FIRST_ID + STUDENTS / 2;
+
+	private static final long COURSE = FIRST_ID + COURSES / 2;
+
+	private static final Path OUTPUT = Path.of("target", "query-plans");
+
+	private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SqlStatementRecorder recorder;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private ClientDetailsRepository clientDetailsRepository;
+
+	@BeforeAll
+	void seed() throws IOException {
+		List<Object[]> clients = new ArrayList<>();
+		List<Object[]> details = new ArrayList<>();
+		List<Object[]> addresses = new ArrayList<>();
+		List<Object[]> clientAddresses = new ArrayList<>();
+		List<Object[]> invoices = new ArrayList<>();
+		for (long c = FIRST_ID; c < FIRST_ID + CLIENTS; c++) {
+			clients.add(new Object[] { c, "Nombre " + c, "Apellido " + c });
+			details.add(new Object[] { c, c % 2 == 0, (int) (c % 1000), c });
+			addresses.add(new Object[] { c, "Calle " + c, (int) (c % 500) });
+			clientAddresses.add(new Object[] { c, c });
+			for (int i = 0; i < INVOICES_PER_CLIENT; i++) {
+				invoices.add(new Object[] { c * INVOICES_PER_CLIENT + i, "Factura " + i, 1000L + i, c });
+			}
+		}
+		jdbcTemplate.batchUpdate("insert into clients (id, name, lastname, version) values (?, ?, ?, 0)", clients);
+		jdbcTemplate.batchUpdate(
+				"insert into clients_details (id, premium, points, client_id, version) values (?, ?, ?, ?, 0)",
+				details);
+		jdbcTemplate.batchUpdate("insert into addresses (id, street, number) values (?, ?, ?)", addresses);
+		jdbcTemplate.batchUpdate("insert into tbl_clientes_to_direcciones (id_cliente, id_direcciones) values (?, ?)",
+				clientAddresses);
+		jdbcTemplate.batchUpdate(
+				"insert into invoices (id, description, total, client_id, version) values (?, ?, ?, ?, 0)", invoices);
+
+		List<Object[]> students = new ArrayList<>();
+		List<Object[]> courses = new ArrayList<>();
+		List<Object[]> enrollments = new ArrayList<>();
+		for (long s = FIRST_ID; s < FIRST_ID + STUDENTS; s++) {
+			students.add(new Object[] { s, "Nombre " + s, "Apellido " + s });
+			for (int i = 0; i < COURSES_PER_STUDENT; i++) {
+				enrollments.add(new Object[] { s, FIRST_ID + (s + i * 37) % COURSES });
+			}
+		}
+		for (long c = FIRST_ID; c < FIRST_ID + COURSES; c++) {
+			courses.add(new Object[] { c, "Curso " + c, "Instructor " + c });
+		}
+		jdbcTemplate.batchUpdate("insert into students (id, name, lastname) values (?, ?, ?)", students);
+		jdbcTemplate.batchUpdate("insert into courses (id, name, instructor) values (?, ?, ?)", courses);
+		jdbcTemplate.batchUpdate("insert into tbl_students_courses (id_student, id_course) values (?, ?)",
+				enrollments);
+
+		jdbcTemplate.execute("analyze table clients, clients_details, addresses, tbl_clientes_to_direcciones, "
+				+ "invoices, students, courses, tbl_students_courses");
+		Files.createDirectories(OUTPUT);
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueriesUseIndexes() {
+		Course course = courseRepository.findById(COURSE).orElseThrow();
+		Limit page = Limit.of(21);
+		List<DynamicTest> cases = new ArrayList<>(List.of(
+				plan("ClientRepository.findOneWithAdresses", () -> clientRepository.findOneWithAdresses(CLIENT),
+						statement(CLIENT)),
+				plan("ClientRepository.findOneWithInvoices", () -> clientRepository.findOneWithInvoices(CLIENT),
+						statement(CLIENT)),
+				plan("ClientRepository.findOne", () -> clientRepository.findOne(CLIENT), statement(CLIENT)),
+				plan("ClientRepository.findOneWithClientDetails",
+						() -> clientRepository.findOneWithClientDetails(CLIENT), statement(CLIENT)),
+				plan("ClientRepository.findByIdGreaterThanOrderByIdAsc",
+						() -> clientRepository.findByIdGreaterThanOrderByIdAsc(CLIENT, page), statement(CLIENT, 21)),
+				/*
+				 * El GROUP BY incluye columnas de clients y clients_details: MariaDB
+				 * agrupa en una tabla temporal y la ordena. El rango por c.id sigue
+				 * usando la clave primaria.
+				 */
+				plan("ClientRepository.findSummariesAfter",
+						() -> clientRepository.findSummariesAfter(CLIENT, page), Set.of(ExplainPlan.FILESORT),
+						statement(CLIENT, 21)),
+				/* Lee todos los clientes a propósito */
+				plan("ClientRepository.streamSummaries", () -> {
+					try (Stream<ClientSummary> summaries = clientRepository.streamSummaries()) {
+						summaries.forEach(summary -> {
+						});
+					}
+				}, Set.of(ExplainPlan.FULL_SCAN, ExplainPlan.FILESORT), statement()),
+				plan("InvoiceRepository.countByClientId", () -> invoiceRepository.countByClientId(CLIENT),
+						statement(CLIENT)),
+				plan("InvoiceRepository.findByIdGreaterThanOrderByIdAsc",
+						() -> invoiceRepository.findByIdGreaterThanOrderByIdAsc(CLIENT * INVOICES_PER_CLIENT, page),
+						statement(CLIENT * INVOICES_PER_CLIENT, 21)),
+				plan("InvoiceRepository.exportClientInvoices",
+						() -> invoiceRepository.exportClientInvoices(CLIENT, OutputStream.nullOutputStream(), 1000),
+						statement(CLIENT)),
+				/* Lee todas las facturas a propósito */
+				plan("InvoiceRepository.exportInvoices",
+						() -> invoiceRepository.exportInvoices(OutputStream.nullOutputStream(), 1000),
+						Set.of(ExplainPlan.FULL_SCAN), statement()),
+				plan("StudentRepository.findOneWithCourse", () -> studentRepository.findOneWithCourse(STUDENT),
+						statement(STUDENT)),
+				plan("StudentRepository.findByCoursesContaining",
+						() -> studentRepository.findByCoursesContaining(course), statement(COURSE)),
+				plan("StudentRepository.findByIdGreaterThanOrderByIdAsc",
+						() -> studentRepository.findByIdGreaterThanOrderByIdAsc(STUDENT, page), statement(STUDENT, 21)),
+				plan("CourseRepository.findOneWithStudents", () -> courseRepository.findOneWithStudents(COURSE),
+						statement(COURSE)),
+				/*
+				 * Con la región de claves naturales vacía el curso se carga por name
+				 * en una sola consulta; con la región llena sería una carga por id.
+				 */
+				plan("CourseRepository.findByName", () -> courseRepository.findByName("Curso " + COURSE),
+						statement("Curso " + COURSE)),
+				plan("CourseRepository.findByIdGreaterThanOrderByIdAsc",
+						() -> courseRepository.findByIdGreaterThanOrderByIdAsc(COURSE, page), statement(COURSE, 21)),
+				plan("CourseRepository.removeCourseFromStudents",
+						() -> courseRepository.removeCourseFromStudents(course), statement(COURSE)),
+				plan("ClientDetailsRepository.findById", () -> clientDetailsRepository.findById(CLIENT),
+						statement(CLIENT))));
+		cases.addAll(fetchPlans("ClientRepository", clientRepository, CLIENT,
+				List.of("summary", "withDetails", "withInvoices", "withAddresses")));
+		cases.addAll(fetchPlans("StudentRepository", studentRepository, STUDENT, List.of("summary", "withCourses")));
+		cases.addAll(fetchPlans("CourseRepository", courseRepository, COURSE, List.of("summary", "withStudents")));
+		return cases.stream();
+	}
+
+	/*
+	 * Cargas de FetchPlanRepository: findById con cada plan, findAllById y
+	 * findPage (ids de la página más uno y después sus entidades) con el último plan, y
+	 * findAll, que lee la tabla completa a propósito.
+	 */
+	private List<DynamicTest> fetchPlans(String name, FetchPlanRepository<?> repository, long id,
+			List<String> plans) {
+		List<DynamicTest> cases = new ArrayList<>();
+		for (String plan : plans) {
+			cases.add(plan(name + ".findById(" + plan + ")", () -> repository.findById(id, plan), statement(id)));
+		}
+		String last = plans.get(plans.size() - 1);
+		cases.add(plan(name + ".findAllById(" + last + ")",
+				() -> repository.findAllById(List.of(id, id + 1, id + 2), last), statement(id, id + 1, id + 2)));
+		Object[] nextPage = LongStream.rangeClosed(id + 1, id + 21).boxed().toArray();
+		cases.add(plan(name + ".findPage(" + last + ")", () -> repository.findPage(token(id), 20, last),
+				statement(id, 21), statement(nextPage)));
+		cases.add(plan(name + ".findAll(summary)", () -> repository.findAll("summary"), Set.of(ExplainPlan.FULL_SCAN),
+				statement()));
+		return cases;
+	}
+
+	private DynamicTest plan(String name, Runnable query, Statement... statements) {
+		return plan(name, query, Set.of(), statements);
+	}
+
+	/*
+	 * statements son los parámetros de cada sentencia que ejecuta la llamada, en
+	 * orden: falla si se ejecutan otras sentencias o si el número de "?" no
+	 * coincide. allowed son los problemas aceptados para la consulta (FULL_SCAN,
+	 * FILESORT).
+	 *
+	 * La llamada se ejecuta en una transacción que se deshace: los Stream y
+	 * cursores la necesitan y los DELETE no cambian los datos generados.
+	 */
+	private DynamicTest plan(String name, Runnable query, Set<String> allowed, Statement... statements) {
+		return DynamicTest.dynamicTest(name, () -> {
+			/* evictAll de JPA no vacía las regiones de claves naturales */
+			entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+			recorder.start();
+			List<String> recorded;
+			try {
+				new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+					query.run();
+					status.setRollbackOnly();
+				});
+			} finally {
+				recorded = recorder.stop();
+			}
+			assertEquals(statements.length, recorded.size(),
+					name + ": sentencias ejecutadas\n" + String.join("\n", recorded));
+
+			List<ExplainPlan> plans = new ArrayList<>();
+			for (int i = 0; i < statements.length; i++) {
+				String sql = recorded.get(i);
+				Object[] parameters = statements[i].parameters();
+				assertEquals(parameters.length, placeholders(sql), name + ": parámetros de " + sql);
+				String json = jdbcTemplate.queryForObject("explain format=json " + sql, String.class, parameters);
+				plans.add(new ExplainPlan(sql, objectMapper.readTree(json)));
+			}
+			objectMapper.writeValue(OUTPUT.resolve(name + ".json").toFile(), plans);
+
+			List<String> problems = plans.stream()
+					.flatMap(plan -> plan.problems().stream()
+							.filter(problem -> allowed.stream().noneMatch(problem::startsWith))
+							.map(problem -> problem + ": " + plan.sql()))
+					.toList();
+			assertTrue(problems.isEmpty(), name + "\n" + String.join("\n", problems));
+		});
+	}
+
+	private static Statement statement(Object... parameters) {
+		return new Statement(parameters);
+	}
+
+	private static String token(long afterId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(("id:" + afterId).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static long placeholders(String sql) {
+		return sql.chars().filter(c -> c == '?').count();
+	}
+
+	private record Statement(Object... parameters) {
+	}
+}
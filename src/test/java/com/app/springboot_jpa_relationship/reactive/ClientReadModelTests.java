@@ -0,0 +1,83 @@
+package com.app.springboot_jpa_relationship.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.ClientSummary;
+import com.app.springboot_jpa_relationship.repositories.InvoiceExportRow;
+
+import reactor.test.StepVerifier;
+
+@SpringBootTest(properties = { "app.reactive.enabled=true", "app.test.database=db_reactive_test" })
+@ActiveProfiles("test")
+class ClientReadModelTests {
+
+	@Autowired
+	private ClientReadModel readModel;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	private Client client;
+
+	@BeforeEach
+	void createClient() {
+		client = new Client("Fran", "Moras");
+		for (int i = 0; i < 10; i++) {
+			client.addInvoice(new Invoice("Factura " + i, 1000L + i));
+		}
+		client.setClientDetails(new ClientDetails(true, 5000));
+		client = clientRepository.save(client);
+	}
+
+	@Test
+	void summariesMatchTheJpaProjection() {
+		List<ClientSummary> expected = clientRepository.findSummariesAfter(client.getId() - 1, Limit.of(5));
+
+		StepVerifier.create(readModel.findSummariesAfter(client.getId() - 1, 5).collectList())
+				.assertNext(summaries -> assertEquals(expected, summaries))
+				.verifyComplete();
+		StepVerifier.create(readModel.findSummary(client.getId()))
+				.expectNext(new ClientSummary(client.getId(), "Fran", "Moras", 10L, 10_045L, true, 5000))
+				.verifyComplete();
+	}
+
+	@Test
+	void invoiceStreamHonoursDemand() {
+		StepVerifier.create(readModel.streamInvoices(client.getId()), 0)
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(3)
+				.expectNextCount(3)
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(Long.MAX_VALUE)
+				.expectNextCount(7)
+				.verifyComplete();
+	}
+
+	@Test
+	void invoiceRowsCarryTheirClient() {
+		StepVerifier.create(readModel.streamInvoices(client.getId()).collectList())
+				.assertNext(rows -> {
+					assertEquals(10, rows.size());
+					for (InvoiceExportRow row : rows) {
+						assertEquals(List.of(client.getId(), "Fran", "Moras"),
+								List.of(row.clientId(), row.clientName(), row.clientLastname()));
+					}
+				})
+				.verifyComplete();
+	}
+}
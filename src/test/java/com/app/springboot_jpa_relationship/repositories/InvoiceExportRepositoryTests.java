@@ -0,0 +1,122 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceExportRepositoryTests {
+
+	private static final String HEADER = "invoice_id,description,total,client_id,client_name,client_lastname";
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	private Client client;
+
+	private final Invoice house = new Invoice("Compras de la casa", 5000L);
+
+	private final Invoice office = new Invoice("Oficina, piso 2", 8000L);
+
+	private final Invoice blank = new Invoice(null, 100L);
+
+	@BeforeEach
+	void createClient() {
+		client = new Client("Fran", "Moras, \"hijo\"");
+		client.addInvoice(house).addInvoice(office).addInvoice(blank);
+		client = clientRepository.save(client);
+	}
+
+	@Test
+	void clientInvoicesAreWrittenInIdOrderWithTheClientColumns() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long rows = invoiceRepository.exportClientInvoices(client.getId(), out, 2);
+
+		String clientColumns = "," + client.getId() + ",Fran,\"Moras, \"\"hijo\"\"\"";
+		Map<Long, String> byId = new TreeMap<>(Map.of(
+				house.getId(), house.getId() + ",Compras de la casa,5000" + clientColumns,
+				office.getId(), office.getId() + ",\"Oficina, piso 2\",8000" + clientColumns,
+				blank.getId(), blank.getId() + ",,100" + clientColumns));
+		List<String> expected = new ArrayList<>(List.of(HEADER));
+		expected.addAll(byId.values());
+		assertEquals(3, rows);
+		assertEquals(expected, lines(out));
+	}
+
+	@Test
+	void anUnknownClientWritesOnlyTheHeader() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long rows = invoiceRepository.exportClientInvoices(-1L, out, 10);
+
+		assertEquals(0, rows);
+		assertEquals(List.of(HEADER), lines(out));
+	}
+
+	@Test
+	void fullExportHasOneLinePerInvoiceWhateverTheFetchSize() {
+		ByteArrayOutputStream small = new ByteArrayOutputStream();
+		ByteArrayOutputStream large = new ByteArrayOutputStream();
+
+		long rows = invoiceRepository.exportInvoices(small, 1);
+		invoiceRepository.exportInvoices(large, 1000);
+
+		assertEquals(invoiceRepository.count(), rows);
+		assertEquals(rows + 1, lines(small).size());
+		assertEquals(lines(large), lines(small));
+		assertTrue(lines(small).stream().skip(1).allMatch(line -> !line.startsWith(",")));
+	}
+
+	@Test
+	void invoicesWithoutAClientAreExportedWithEmptyClientColumns() {
+		Invoice orphan = invoiceRepository.save(new Invoice("Sin cliente", 300L));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long rows = invoiceRepository.exportInvoices(out, 10);
+
+		assertEquals(invoiceRepository.count(), rows);
+		assertTrue(lines(out).contains(orphan.getId() + ",Sin cliente,300,,,"), lines(out).toString());
+	}
+
+	@Test
+	void carriageReturnsAreQuoted() {
+		Client windows = new Client("Ana", "Línea\r\nNueva");
+		windows.addInvoice(new Invoice("Retorno\rsolo", 10L));
+		windows = clientRepository.save(windows);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try {
+			invoiceRepository.exportClientInvoices(windows.getId(), out, 10);
+		} finally {
+			/* Los demás tests cuentan líneas con lines(), que también corta en \r */
+			clientRepository.delete(windows);
+		}
+
+		String csv = out.toString(StandardCharsets.UTF_8);
+		assertTrue(csv.contains(",\"Retorno\rsolo\",10," + windows.getId() + ",Ana,\"Línea\r\nNueva\"\n"), csv);
+	}
+
+	private static List<String> lines(ByteArrayOutputStream out) {
+		return out.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+}
@@ -0,0 +1,95 @@
+package com.app.springboot_jpa_relationship.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class KeysetPageTests {
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Test
+	void tokenRoundTripsTheLastIdOfThePage() {
+		KeysetPage<Long> page = KeysetPage.of(List.of(7L, 9L, 12L), 2, Function.identity());
+
+		assertEquals(List.of(7L, 9L), page.content());
+		assertTrue(page.hasNext());
+		assertEquals(9L, KeysetPage.afterId(page.nextToken()));
+	}
+
+	@Test
+	void aPageWithoutTheExtraRowIsTheLast() {
+		KeysetPage<Long> full = KeysetPage.of(List.of(7L, 9L), 2, Function.identity());
+		KeysetPage<Long> empty = KeysetPage.of(List.of(), 2, Function.identity());
+
+		assertEquals(List.of(7L, 9L), full.content());
+		assertFalse(full.hasNext());
+		assertNull(full.nextToken());
+		assertTrue(empty.content().isEmpty());
+		assertFalse(empty.hasNext());
+	}
+
+	@Test
+	void noTokenStartsFromTheBeginning() {
+		assertEquals(0L, KeysetPage.afterId(null));
+		assertEquals(0L, KeysetPage.afterId(""));
+	}
+
+	@Test
+	void invalidTokensAreRejected() {
+		String notBase64 = "%%%";
+		String noPrefix = Base64.getUrlEncoder().encodeToString("12".getBytes(StandardCharsets.UTF_8));
+		String notANumber = Base64.getUrlEncoder().encodeToString("id:doce".getBytes(StandardCharsets.UTF_8));
+
+		for (String token : List.of(notBase64, noPrefix, notANumber)) {
+			IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+					() -> KeysetPage.afterId(token));
+			assertEquals("Token de paginación inválido: " + token, error.getMessage());
+		}
+	}
+
+	@Test
+	void limitAsksForOneRowMoreThanThePage() {
+		assertEquals(21, KeysetPage.limitFor(20).max());
+		assertThrows(IllegalArgumentException.class, () -> KeysetPage.limitFor(0));
+	}
+
+	@Test
+	void walkingEveryPageVisitsEachClientOnceInIdOrder() {
+		for (int i = 0; i < 5; i++) {
+			clientRepository.save(new Client("Cliente", "Página " + i));
+		}
+		List<Long> expected = StreamSupport.stream(clientRepository.findAll().spliterator(), false)
+				.map(Client::getId).sorted().toList();
+
+		List<Long> visited = new ArrayList<>();
+		String token = null;
+		do {
+			KeysetPage<Client> page = clientRepository.findPage(token, 2);
+			assertTrue(page.content().size() <= 2);
+			page.content().forEach(client -> visited.add(client.getId()));
+			token = page.nextToken();
+		} while (token != null);
+
+		assertEquals(expected, visited);
+	}
+}
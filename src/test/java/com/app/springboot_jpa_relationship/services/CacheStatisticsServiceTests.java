@@ -0,0 +1,76 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.config.CacheConfig;
+import com.app.springboot_jpa_relationship.config.PersistenceMetricsConfig;
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Cada findById es una transacción propia: la primera lectura va a la base de
+ * datos y deja el curso en la región, la segunda lo encuentra ahí.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheStatisticsServiceTests {
+
+	@Autowired
+	private CacheStatisticsService cacheStatisticsService;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long course;
+
+	@BeforeEach
+	void createCourse() {
+		course = courseRepository.save(new Course("Caché " + UUID.randomUUID(), "Pepito")).getId();
+		entityManagerFactory.getCache().evict(Course.class);
+	}
+
+	@Test
+	void theSecondLookupOfACourseHitsTheRegion() {
+		CacheRegionStats before = cacheStatisticsService.region(CacheConfig.COURSES);
+
+		courseRepository.findById(course).orElseThrow();
+		courseRepository.findById(course).orElseThrow();
+
+		CacheRegionStats after = cacheStatisticsService.region(CacheConfig.COURSES);
+		assertEquals(1, after.misses() - before.misses());
+		assertEquals(1, after.puts() - before.puts());
+		assertEquals(1, after.hits() - before.hits());
+	}
+
+	@Test
+	void regionMetricsPublishTheHitRatioAndCountTheEvictions() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		new PersistenceMetricsConfig().cacheRegionMetrics(cacheStatisticsService).bindTo(registry);
+
+		courseRepository.findById(course).orElseThrow();
+		courseRepository.findById(course).orElseThrow();
+
+		assertEquals(cacheStatisticsService.region(CacheConfig.COURSES).hitRatio(),
+				registry.get("cache.region.hit.ratio").tag("region", CacheConfig.COURSES).gauge().value());
+		assertTrue(registry.get("cache.region.hit.ratio").tag("region", CacheConfig.COURSES).gauge().value() > 0);
+		FunctionCounter evictions = registry.get("cache.region.evictions").tag("region", CacheConfig.COURSES)
+				.functionCounter();
+		assertEquals(cacheStatisticsService.region(CacheConfig.COURSES).evictions(), evictions.count());
+	}
+}
@@ -0,0 +1,93 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.app.springboot_jpa_relationship.entities.Address;
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ClientAggregateServiceTests {
+
+	@Autowired
+	private ClientAggregateService clientAggregateService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Client client;
+
+	@BeforeEach
+	void createClient() {
+		client = new Client("Fran", "Moras");
+		for (int i = 0; i < 3; i++) {
+			client.addInvoice(new Invoice("Factura " + i, 1000L + i));
+		}
+		client.setClientDetails(new ClientDetails(true, 5000));
+		client = clientRepository.save(client);
+		for (int i = 0; i < 2; i++) {
+			client.getAddresses().add(new Address("Calle " + i, i));
+			client = clientRepository.save(client);
+		}
+	}
+
+	@Test
+	void viewContainsEveryPart() {
+		ClientView view = clientAggregateService.findClientView(client.getId()).orElseThrow();
+
+		assertEquals("Fran", view.name());
+		assertEquals(new ClientView.Details(true, 5000), view.details());
+		assertEquals(List.of("Factura 0", "Factura 1", "Factura 2"),
+				view.invoices().stream().map(ClientView.InvoiceLine::description).sorted().toList());
+		assertEquals(List.of("Calle 0", "Calle 1"),
+				view.addresses().stream().map(ClientView.AddressLine::street).sorted().toList());
+		assertThrows(UnsupportedOperationException.class, () -> view.invoices().clear());
+	}
+
+	@Test
+	void clientWithoutDetailsHasNullDetails() {
+		Client plain = clientRepository.save(new Client("Sin", "Detalles"));
+
+		ClientView view = clientAggregateService.findClientView(plain.getId()).orElseThrow();
+
+		assertNull(view.details());
+		assertTrue(view.invoices().isEmpty());
+		assertTrue(view.addresses().isEmpty());
+	}
+
+	@Test
+	void missingClientIsEmpty() {
+		assertTrue(clientAggregateService.findClientView(-1L).isEmpty());
+	}
+
+	@Test
+	void partsThatMissTheDeadlineFail() {
+		ClientAggregateService impatient = new ClientAggregateService(clientRepository, transactionManager,
+				Duration.ZERO);
+		try {
+			assertThrows(QueryTimeoutException.class, () -> impatient.findClientView(client.getId()));
+		} finally {
+			impatient.shutdown();
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientInvoiceStats;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.InvoiceRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Cada paso es una transacción propia: el listener aplica los cambios antes
+ * del commit y luego se lee la fila de client_invoice_stats.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ClientInvoiceStatsTests {
+
+	@Autowired
+	private ClientInvoiceStatsService clientInvoiceStatsService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+
+	private Long first;
+
+	private Long second;
+
+	@BeforeEach
+	void createClients() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		first = clientRepository.save(new Client("Fran", "Moras")).getId();
+		second = clientRepository.save(new Client("Erba", "Pura")).getId();
+	}
+
+	@Test
+	void insertsAreAddedToTheClientRow() {
+		append(first, 100L);
+		append(first, 300L);
+
+		assertStats(first, 2, 400, 100L, 300L);
+	}
+
+	@Test
+	void updatingATotalRecomputesMinAndMax() {
+		append(first, 100L);
+		Long invoiceId = append(first, 300L);
+
+		updateTotal(invoiceId, 50L);
+
+		assertStats(first, 2, 150, 50L, 100L);
+	}
+
+	@Test
+	void movingAnInvoiceUpdatesBothClients() {
+		Long moved = append(first, 100L);
+		append(first, 300L);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Invoice invoice = invoiceRepository.findById(moved).orElseThrow();
+			invoice.setClient(clientRepository.findById(second).orElseThrow());
+		});
+
+		assertStats(first, 1, 300, 300L, 300L);
+		assertStats(second, 1, 100, 100L, 100L);
+	}
+
+	@Test
+	void deletingTheLastInvoiceLeavesAnEmptyRow() {
+		Long invoiceId = append(first, 100L);
+
+		transactionTemplate.executeWithoutResult(status -> invoiceRepository.deleteById(invoiceId));
+
+		assertStats(first, 0, 0, null, null);
+	}
+
+	@Test
+	void invoicesAddedThroughTheClientAreCascaded() {
+		transactionTemplate.executeWithoutResult(status -> clientRepository.findOneWithInvoices(first).orElseThrow()
+				.addInvoice(new Invoice("Casa", 100L)).addInvoice(new Invoice("Auto", 300L)));
+
+		assertEquals(2, invoiceRepository.countByClientId(first));
+		assertStats(first, 2, 400, 100L, 300L);
+	}
+
+	/* removeInvoice deja client en null: el listener toma el cliente del estado cargado */
+	@Test
+	void invoicesRemovedThroughTheClientAreDeletedAsOrphans() {
+		append(first, 100L);
+		Long removed = append(first, 300L);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Client client = clientRepository.findOneWithInvoices(first).orElseThrow();
+			client.removeInvoice(invoiceRepository.findById(removed).orElseThrow());
+		});
+
+		assertTrue(invoiceRepository.findById(removed).isEmpty());
+		assertStats(first, 1, 100, 100L, 100L);
+	}
+
+	@Test
+	void aRolledBackTransactionChangesNothing() {
+		append(first, 100L);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			invoiceRepository.save(invoice(first, 500L));
+			entityManager.flush();
+			status.setRollbackOnly();
+		});
+
+		assertStats(first, 1, 100, 100L, 100L);
+	}
+
+	@Test
+	void everyStepKeepsTheTableConsistent() {
+		Long updated = append(first, 100L);
+		Long moved = append(first, 300L);
+		Long deleted = append(second, 700L);
+		updateTotal(updated, 150L);
+		transactionTemplate.executeWithoutResult(status -> invoiceRepository.findById(moved).orElseThrow()
+				.setClient(clientRepository.findById(second).orElseThrow()));
+		transactionTemplate.executeWithoutResult(status -> invoiceRepository.deleteById(deleted));
+
+		List<Long> inconsistent = clientInvoiceStatsService.findInconsistentClients();
+		assertFalse(inconsistent.contains(first), inconsistent.toString());
+		assertFalse(inconsistent.contains(second), inconsistent.toString());
+	}
+
+	@Test
+	void consistencyCheckFindsDriftedRowsAndRebuildRepairsThem() {
+		append(first, 100L);
+		append(second, 200L);
+		/* Cambios fuera de Hibernate: el listener no se entera */
+		jdbcTemplate.update("UPDATE client_invoice_stats SET total_sum = 999, max_total = NULL WHERE client_id = ?",
+				first);
+		jdbcTemplate.update("DELETE FROM client_invoice_stats WHERE client_id = ?", second);
+
+		List<Long> inconsistent = clientInvoiceStatsService.findInconsistentClients();
+		assertTrue(inconsistent.containsAll(List.of(first, second)), inconsistent.toString());
+
+		assertTrue(clientInvoiceStatsService.rebuild() >= 2);
+
+		inconsistent = clientInvoiceStatsService.findInconsistentClients();
+		assertFalse(inconsistent.contains(first), inconsistent.toString());
+		assertFalse(inconsistent.contains(second), inconsistent.toString());
+		assertStats(first, 1, 100, 100L, 100L);
+		assertStats(second, 1, 200, 200L, 200L);
+	}
+
+	@Test
+	void rebuildingOneClientReplacesItsRowOrRemovesIt() {
+		append(first, 100L);
+		append(first, 300L);
+		jdbcTemplate.update("UPDATE client_invoice_stats SET invoice_count = 9, min_total = NULL WHERE client_id = ?",
+				first);
+		jdbcTemplate.update("INSERT INTO client_invoice_stats (client_id, invoice_count, total_sum) VALUES (?, 1, 5)",
+				second);
+
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			ClientInvoiceStatsService.rebuildClient(connection, first);
+			ClientInvoiceStatsService.rebuildClient(connection, second);
+			return null;
+		});
+
+		assertStats(first, 2, 400, 100L, 300L);
+		assertTrue(clientInvoiceStatsService.findByClientId(second).isEmpty());
+	}
+
+	private Long append(Long clientId, Long total) {
+		return transactionTemplate.execute(status -> invoiceRepository.save(invoice(clientId, total)).getId());
+	}
+
+	private void updateTotal(Long invoiceId, Long total) {
+		transactionTemplate.executeWithoutResult(
+				status -> invoiceRepository.findById(invoiceId).orElseThrow().setTotal(total));
+	}
+
+	private Invoice invoice(Long clientId, Long total) {
+		Invoice invoice = new Invoice("Factura " + total, total);
+		invoice.setClient(clientRepository.findById(clientId).orElseThrow());
+		return invoice;
+	}
+
+	private void assertStats(Long clientId, long count, long sum, Long min, Long max) {
+		ClientInvoiceStats stats = clientInvoiceStatsService.findByClientId(clientId).orElseThrow();
+		assertEquals(count, stats.getInvoiceCount());
+		assertEquals(sum, stats.getTotalSum());
+		if (min == null) {
+			assertNull(stats.getMinTotal());
+			assertNull(stats.getMaxTotal());
+		} else {
+			assertEquals(min, stats.getMinTotal());
+			assertEquals(max, stats.getMaxTotal());
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.entities.Student;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+import com.app.springboot_jpa_relationship.repositories.StudentRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Bloques de 2 filas para que unas pocas inscripciones necesiten varios
+ * DELETE ... LIMIT.
+ */
+@SpringBootTest(properties = { "app.decommission.chunk-size=2", "app.test.database=db_decommission_test" })
+@ActiveProfiles("test")
+class CourseDecommissionServiceTests {
+
+	@Autowired
+	private CourseDecommissionService courseDecommissionService;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private List<Long> students;
+
+	private Long removed;
+
+	private Long kept;
+
+	@BeforeEach
+	void createEnrollments() {
+		students = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			students.add(studentRepository.save(new Student("Estudiante " + i, "Baja")).getId());
+		}
+		removed = course("Java");
+		kept = course("Go");
+	}
+
+	@Test
+	void enrollmentsAreDeletedInChunksUntilTheCourseIsRemoved() {
+		enrollmentService.enroll(students, List.of(removed, kept));
+
+		long deleted = courseDecommissionService.decommission(removed);
+
+		assertEquals(5, deleted);
+		assertEquals(0, enrollments(removed));
+		assertTrue(courseRepository.findById(removed).isEmpty());
+		assertEquals(5, enrollments(kept));
+		assertTrue(students.stream().allMatch(studentRepository::existsById));
+	}
+
+	@Test
+	void anExactMultipleOfTheChunkSizeEndsOnAnEmptyChunk() {
+		enrollmentService.enroll(students.subList(0, 4), List.of(removed));
+
+		assertEquals(4, courseDecommissionService.decommission(removed));
+		assertTrue(courseRepository.findById(removed).isEmpty());
+	}
+
+	@Test
+	void aCourseWithoutEnrollmentsIsRemoved() {
+		assertEquals(0, courseDecommissionService.decommission(removed));
+		assertTrue(courseRepository.findById(removed).isEmpty());
+	}
+
+	/*
+	 * removeCourseFromStudents declara tbl_students_courses como su espacio de
+	 * consulta: las demás regiones del caché, como la de Course, se conservan.
+	 */
+	@Test
+	void removingACourseKeepsTheOtherCoursesCached() {
+		enrollmentService.enroll(students, List.of(removed, kept));
+		courseRepository.findById(kept);
+		assertTrue(entityManagerFactory.getCache().contains(Course.class, kept));
+
+		courseRepository.deleteCourseAndRelationships(courseRepository.findById(removed).orElseThrow());
+
+		assertEquals(0, enrollments(removed));
+		assertTrue(courseRepository.findById(removed).isEmpty());
+		assertTrue(entityManagerFactory.getCache().contains(Course.class, kept));
+	}
+
+	/* El nombre del curso es su clave natural: debe ser único en toda la ejecución */
+	private Long course(String name) {
+		return courseRepository.save(new Course(name + " " + UUID.randomUUID(), "Pepito")).getId();
+	}
+
+	private long enrollments(Long courseId) {
+		return jdbcTemplate.queryForObject("select count(*) from tbl_students_courses where id_course = ?",
+				Long.class, courseId);
+	}
+}
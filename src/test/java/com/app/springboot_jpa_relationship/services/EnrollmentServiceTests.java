@@ -0,0 +1,102 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.entities.Student;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+import com.app.springboot_jpa_relationship.repositories.StudentRepository;
+
+/*
+ * Bloques de 4 pares para que una inscripción de 3 x 2 use dos INSERT IGNORE.
+ */
+@SpringBootTest(properties = { "app.enrollment.chunk-size=4", "app.test.database=db_enrollment_test" })
+@ActiveProfiles("test")
+class EnrollmentServiceTests {
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private List<Long> students;
+
+	private List<Long> courses;
+
+	@BeforeEach
+	void createStudentsAndCourses() {
+		students = List.of(student("Fran"), student("Erba"), student("Pura"));
+		courses = List.of(course("Java"), course("Go"));
+	}
+
+	@Test
+	void everyStudentIsEnrolledInEveryCourseAcrossChunks() {
+		int inserted = enrollmentService.enroll(students, courses);
+
+		assertEquals(6, inserted);
+		assertEquals(students, enrolled(courses.get(0)));
+		assertEquals(students, enrolled(courses.get(1)));
+	}
+
+	@Test
+	void existingEnrollmentsAreSkippedAndNotCounted() {
+		enrollmentService.enroll(List.of(students.get(0)), courses);
+
+		int inserted = enrollmentService.enroll(students, courses);
+
+		assertEquals(4, inserted);
+		assertEquals(students, enrolled(courses.get(0)));
+		assertEquals(students, enrolled(courses.get(1)));
+	}
+
+	@Test
+	void repeatedIdsAreEnrolledOnce() {
+		Long student = students.get(1);
+		Long course = courses.get(0);
+
+		int inserted = enrollmentService.enroll(List.of(student, student), List.of(course, course));
+
+		assertEquals(1, inserted);
+		assertEquals(List.of(student), enrolled(course));
+	}
+
+	@Test
+	void enrollingTwiceInsertsNothingTheSecondTime() {
+		enrollmentService.enroll(students, courses);
+
+		assertEquals(0, enrollmentService.enroll(students, courses));
+		assertEquals(students, enrolled(courses.get(0)));
+	}
+
+	private Long student(String name) {
+		return studentRepository.save(new Student(name, "Inscripción")).getId();
+	}
+
+	/* El nombre del curso es su clave natural: debe ser único en toda la ejecución */
+	private Long course(String name) {
+		return courseRepository.save(new Course(name + " " + UUID.randomUUID(), "Pepito")).getId();
+	}
+
+	private List<Long> enrolled(Long courseId) {
+		return jdbcTemplate.queryForList(
+				"select id_student from tbl_students_courses where id_course = ? order by id_student", Long.class,
+				courseId);
+	}
+}
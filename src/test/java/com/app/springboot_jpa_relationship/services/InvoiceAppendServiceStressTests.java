@@ -0,0 +1,70 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.InvoiceRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceAppendServiceStressTests {
+
+	private static final int WRITERS = 64;
+
+	private static final int INVOICES_PER_WRITER = 50;
+
+	@Autowired
+	private InvoiceAppendService invoiceAppendService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Test
+	void concurrentWritersToOneClientLoseNoInvoices() throws Exception {
+		Long clientId = clientRepository.save(new Client("Fran", "Moras")).getId();
+		CountDownLatch start = new CountDownLatch(1);
+
+		long elapsed;
+		try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int w = 0; w < WRITERS; w++) {
+				int writer = w;
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < INVOICES_PER_WRITER; i++) {
+						invoiceAppendService.append(clientId, "Factura " + writer + "-" + i, 1000L + i);
+					}
+					return null;
+				}));
+			}
+			long begin = System.nanoTime();
+			start.countDown();
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			elapsed = System.nanoTime() - begin;
+		}
+
+		int expected = WRITERS * INVOICES_PER_WRITER;
+		System.out.printf("%d escritores, %d facturas, %.0f facturas/s%n", WRITERS, expected,
+				expected / (elapsed / 1_000_000_000.0));
+		assertEquals(expected, invoiceRepository.countByClientId(clientId));
+		assertEquals(0L, clientRepository.findById(clientId).orElseThrow().getVersion());
+	}
+}
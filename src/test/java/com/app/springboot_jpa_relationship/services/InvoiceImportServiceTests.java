@@ -0,0 +1,172 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.InvoiceRepository;
+
+import jakarta.persistence.PersistenceException;
+
+/*
+ * Bloques de 3 registros para que unas pocas líneas crucen varios bloques.
+ */
+@SpringBootTest(properties = { "app.import.chunk-size=3", "app.test.database=db_import_test" })
+@ActiveProfiles("test")
+class InvoiceImportServiceTests {
+
+	@Autowired
+	private InvoiceImportService invoiceImportService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long clientId;
+
+	@BeforeEach
+	void createClient() {
+		clientId = clientRepository.save(new Client("Fran", "Moras")).getId();
+	}
+
+	@Test
+	void progressIsReportedAfterEveryChunk() {
+		List<Long> progress = new ArrayList<>();
+
+		ImportProgress result = invoiceImportService.importCsv(csv(7), p -> progress.add(p.records()));
+
+		assertEquals(7, result.records());
+		assertEquals(List.of(3L, 6L, 7L), progress);
+		assertEquals(7, invoiceRepository.countByClientId(clientId));
+	}
+
+	@Test
+	void aFullLastChunkIsReportedOnce() {
+		List<Long> progress = new ArrayList<>();
+
+		ImportProgress result = invoiceImportService.importCsv(csv(6), p -> progress.add(p.records()));
+
+		assertEquals(6, result.records());
+		assertEquals(List.of(3L, 6L), progress);
+	}
+
+	@Test
+	void anEmptyFileReportsZeroOnce() {
+		List<Long> progress = new ArrayList<>();
+
+		invoiceImportService.importCsv(reader(""), p -> progress.add(p.records()));
+
+		assertEquals(List.of(0L), progress);
+	}
+
+	@Test
+	void headerAndBlankLinesAreSkippedAndQuotedDescriptionsKeepTheirCommas() {
+		String lines = "client_id,description,total\n"
+				+ "\n"
+				+ clientId + ",\"Compras, casa \"\"A\"\"\",5000\n"
+				+ clientId + ",Oficina, piso 2,8000\n";
+
+		ImportProgress result = invoiceImportService.importCsv(reader(lines), p -> {
+		});
+
+		assertEquals(2, result.records());
+		assertEquals(List.of("Compras, casa \"A\"", "Oficina, piso 2"), descriptions());
+	}
+
+	@Test
+	void aBadLineStopsTheImportAfterTheChunksAlreadyCommitted() {
+		String lines = csvLines(4) + clientId + ",sin total\n" + csvLines(2);
+
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+				() -> invoiceImportService.importCsv(reader(lines), p -> {
+				}));
+
+		assertTrue(error.getMessage().startsWith("Línea 5:"), error.getMessage());
+		assertEquals(3, invoiceRepository.countByClientId(clientId));
+	}
+
+	@Test
+	void aNonNumericTotalIsReportedWithItsLine() {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+				() -> invoiceImportService.importCsv(reader(clientId + ",Factura,mil\n"), p -> {
+				}));
+
+		assertTrue(error.getMessage().startsWith("Línea 1: número inválido"), error.getMessage());
+	}
+
+	@Test
+	void jsonLinesAreImported() {
+		String lines = "{\"clientId\":" + clientId + ",\"description\":\"Casa\",\"total\":5000}\n"
+				+ "{\"clientId\":" + clientId + ",\"total\":8000}\n";
+
+		ImportProgress result = invoiceImportService.importJsonLines(reader(lines), p -> {
+		});
+
+		assertEquals(2, result.records());
+		assertEquals(2, invoiceRepository.countByClientId(clientId));
+	}
+
+	@Test
+	void jsonLinesWithoutTotalOrInvalidJsonAreRejected() {
+		IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+				() -> invoiceImportService.importJsonLines(reader("{\"clientId\":" + clientId + "}\n"), p -> {
+				}));
+		IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+				() -> invoiceImportService.importJsonLines(reader("{clientId:\n"), p -> {
+				}));
+
+		assertTrue(missing.getMessage().startsWith("Línea 1: faltan clientId o total"), missing.getMessage());
+		assertTrue(invalid.getMessage().startsWith("Línea 1: JSON inválido"), invalid.getMessage());
+	}
+
+	@Test
+	void anUnknownClientRollsBackOnlyItsChunk() {
+		String lines = csvLines(3) + "999999,Sin cliente,100\n" + csvLines(1);
+
+		/* La clave foránea falla en el flush del segundo bloque */
+		assertThrows(PersistenceException.class, () -> invoiceImportService.importCsv(reader(lines), p -> {
+		}));
+
+		assertEquals(3, invoiceRepository.countByClientId(clientId));
+	}
+
+	private BufferedReader csv(int records) {
+		return reader(csvLines(records));
+	}
+
+	private String csvLines(int records) {
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < records; i++) {
+			lines.append(clientId).append(",Factura ").append(i).append(',').append(1000 + i).append('\n');
+		}
+		return lines.toString();
+	}
+
+	private List<String> descriptions() {
+		return jdbcTemplate.queryForList("select description from invoices where client_id = ? order by id",
+				String.class, clientId);
+	}
+
+	private static BufferedReader reader(String lines) {
+		return new BufferedReader(new StringReader(lines));
+	}
+}
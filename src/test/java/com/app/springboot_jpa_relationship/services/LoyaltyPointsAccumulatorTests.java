@@ -0,0 +1,90 @@
+package com.app.springboot_jpa_relationship.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoyaltyPointsAccumulatorTests {
+
+	private static final int EVENTS = 10_000;
+
+	@Autowired
+	private LoyaltyPointsAccumulator accumulator;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Value("${app.points.spill-dir}")
+	private Path spillDir;
+
+	private Client client;
+
+	@BeforeEach
+	void createClient() {
+		client = new Client("Fran", "Moras");
+		client.setClientDetails(new ClientDetails(false, 100));
+		client = clientRepository.save(client);
+	}
+
+	@Test
+	void concurrentEventsAreCoalescedIntoOneUpdate() {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < EVENTS; i++) {
+				executor.execute(() -> accumulator.add(client.getId(), 1));
+			}
+		}
+
+		accumulator.flush();
+
+		assertEquals(0, accumulator.pendingPoints(client.getId()));
+		assertEquals(100 + EVENTS, points());
+	}
+
+	@Test
+	void spilledBatchIsReplayedOnlyOnce() throws IOException {
+		Path batch = spillDir.resolve(UUID.randomUUID() + ".points");
+		spill(batch, client.getId() + " 25\n");
+
+		accumulator.flush();
+		assertEquals(125, points());
+
+		/* Caída después del commit y antes de borrar el archivo */
+		spill(batch, client.getId() + " 25\n");
+		accumulator.flush();
+
+		assertEquals(125, points());
+		assertTrue(Files.notExists(batch));
+	}
+
+	/* El vaciado periódico no debe ver el archivo a medio escribir */
+	private static void spill(Path batch, String lines) throws IOException {
+		Files.createDirectories(batch.getParent());
+		Path temp = Files.createTempFile(batch.getParent().getParent(), "batch", null);
+		Files.writeString(temp, lines);
+		Files.move(temp, batch, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private int points() {
+		return clientRepository.findOneWithClientDetails(client.getId()).orElseThrow().getClientDetails().getPoints();
+	}
+}
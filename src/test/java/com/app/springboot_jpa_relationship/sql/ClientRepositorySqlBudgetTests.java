@@ -0,0 +1,66 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+
+@SpringBootTest(properties = SqlStatementRecorderConfig.DATABASE)
+@ActiveProfiles("test")
+@Import(SqlStatementRecorderConfig.class)
+class ClientRepositorySqlBudgetTests {
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private SqlStatementRecorder recorder;
+
+	@Test
+	@SqlBudget(max = 1)
+	void findOneFetchesTheAggregateInOneStatement() {
+		clientRepository.findOne(1L).orElseThrow();
+	}
+
+	@Test
+	void findOneAggregateRunsOneStatementPerAssociation() {
+		SqlBudgets.assertAtMost(recorder, 3, "ClientRepository.findOneAggregate",
+				() -> clientRepository.findOneAggregate(1L).orElseThrow());
+	}
+
+	@Test
+	@SqlBudget(max = 1)
+	void findByIdWithPlanFetchesTheCollectionInOneStatement() {
+		clientRepository.findById(1L, "withInvoices").orElseThrow();
+	}
+
+	@Test
+	void findPageWithPlanRunsOneStatementForIdsAndOneForEntities() {
+		SqlBudgets.assertAtMost(recorder, 2, "ClientRepository.findPage con plan",
+				() -> clientRepository.findPage(null, 10, "withInvoices"));
+	}
+
+	@Test
+	void unknownPlanIsRejected() {
+		assertThrows(InvalidDataAccessApiUsageException.class, () -> clientRepository.findAll("sinPlan"));
+	}
+
+	@Test
+	void exceededBudgetReportsStatementsGroupedByShape() {
+		SqlBudgetExceededError error = assertThrows(SqlBudgetExceededError.class,
+				() -> SqlBudgets.assertAtMost(recorder, 1, "dos búsquedas por id", () -> {
+					clientRepository.findOneWithAdresses(1L);
+					return clientRepository.findOneWithAdresses(2L);
+				}));
+
+		assertTrue(error.getMessage().contains("2 sentencias (máximo 1)"), error.getMessage());
+		assertTrue(error.getMessage().contains("    2 x select"), error.getMessage());
+	}
+}
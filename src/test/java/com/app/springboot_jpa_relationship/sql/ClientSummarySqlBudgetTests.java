@@ -0,0 +1,104 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.ClientSummary;
+import com.app.springboot_jpa_relationship.repositories.KeysetPage;
+
+@SpringBootTest(properties = SqlStatementRecorderConfig.DATABASE)
+@ActiveProfiles("test")
+@Import(SqlStatementRecorderConfig.class)
+class ClientSummarySqlBudgetTests {
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private SqlStatementRecorder recorder;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Client withInvoices;
+
+	private Client withoutInvoices;
+
+	@BeforeEach
+	void createClients() {
+		withInvoices = new Client("Fran", "Moras");
+		withInvoices.addInvoice(new Invoice("Casa", 5000L)).addInvoice(new Invoice("Oficina", 8000L))
+				.addInvoice(new Invoice("Auto", 2000L));
+		withInvoices.setClientDetails(new ClientDetails(true, 5000));
+		withInvoices = clientRepository.save(withInvoices);
+		withoutInvoices = clientRepository.save(new Client("Erba", "Pura"));
+	}
+
+	@Test
+	void invoicesAreCountedAndSummedInSql() {
+		Map<Long, ClientSummary> summaries = allSummaries();
+
+		assertEquals(new ClientSummary(withInvoices.getId(), "Fran", "Moras", 3L, 15000L, true, 5000),
+				summaries.get(withInvoices.getId()));
+	}
+
+	@Test
+	void aClientWithoutInvoicesOrDetailsHasZeroTotalsAndNullDetails() {
+		Map<Long, ClientSummary> summaries = allSummaries();
+
+		assertEquals(new ClientSummary(withoutInvoices.getId(), "Erba", "Pura", 0L, 0L, null, null),
+				summaries.get(withoutInvoices.getId()));
+	}
+
+	@Test
+	void eachSummaryPageIsOneStatement() {
+		KeysetPage<ClientSummary> page = SqlBudgets.assertAtMost(recorder, 1, "ClientRepository.findSummaryPage",
+				() -> clientRepository.findSummaryPage(null, 1));
+
+		assertEquals(1, page.content().size());
+	}
+
+	@Test
+	void pagesAndStreamReturnTheSameSummaries() {
+		List<ClientSummary> paged = new ArrayList<>();
+		String token = null;
+		do {
+			KeysetPage<ClientSummary> page = clientRepository.findSummaryPage(token, 2);
+			paged.addAll(page.content());
+			token = page.nextToken();
+		} while (token != null);
+
+		assertEquals(List.copyOf(allSummaries().values()), paged);
+	}
+
+	/* Ordenados por id, como los devuelve la consulta */
+	private Map<Long, ClientSummary> allSummaries() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		return transactionTemplate.execute(status -> {
+			try (var summaries = clientRepository.streamSummaries()) {
+				return summaries.collect(Collectors.toMap(ClientSummary::id, Function.identity(), (a, b) -> a,
+						LinkedHashMap::new));
+			}
+		});
+	}
+}
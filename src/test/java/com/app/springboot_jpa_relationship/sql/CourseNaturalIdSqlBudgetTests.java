@@ -0,0 +1,61 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Course;
+import com.app.springboot_jpa_relationship.repositories.CourseRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = SqlStatementRecorderConfig.DATABASE)
+@ActiveProfiles("test")
+@Import(SqlStatementRecorderConfig.class)
+class CourseNaturalIdSqlBudgetTests {
+
+	private static final List<String> NAMES = List.of("Natural Java", "Natural C++", "Natural Go");
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SqlStatementRecorder recorder;
+
+	@BeforeEach
+	void createCourses() {
+		for (String name : NAMES) {
+			if (courseRepository.findByName(name).isEmpty()) {
+				courseRepository.save(new Course(name, "Pepito"));
+			}
+		}
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void repeatedLookupByNameIsServedFromTheCache() {
+		courseRepository.findByName("Natural Java").orElseThrow();
+
+		Course course = SqlBudgets.assertAtMost(recorder, 0, "CourseRepository.findByName en caché",
+				() -> courseRepository.findByName("Natural Java").orElseThrow());
+		assertEquals("Natural Java", course.getName());
+	}
+
+	@Test
+	void multipleNamesAreResolvedInOneStatement() {
+		List<Course> courses = SqlBudgets.assertAtMost(recorder, 1, "CourseRepository.findAllByNaturalIds",
+				() -> courseRepository.findAllByNaturalIds(List.of("Natural Go", "Sin curso", "Natural Java")));
+
+		assertEquals(List.of("Natural Go", "Natural Java"), courses.stream().map(Course::getName).toList());
+	}
+}
@@ -0,0 +1,84 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.services.InvoiceAppendService;
+
+@SpringBootTest(properties = SqlStatementRecorderConfig.DATABASE)
+@ActiveProfiles("test")
+@Import(SqlStatementRecorderConfig.class)
+class InvoiceAppendSqlBudgetTests {
+
+	private static final int EXISTING_INVOICES = 500;
+
+	@Autowired
+	private InvoiceAppendService invoiceAppendService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private SqlStatementRecorder recorder;
+
+	private TransactionTemplate transactionTemplate;
+
+	private Long clientId;
+
+	@BeforeEach
+	void createClientWithManyInvoices() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		Client client = new Client("Fran", "Moras");
+		for (int i = 0; i < EXISTING_INVOICES; i++) {
+			client.addInvoice(new Invoice("Factura " + i, 1000L + i));
+		}
+		clientId = clientRepository.save(client).getId();
+	}
+
+	@Test
+	void appendingThroughAReferenceOnlyInsertsTheInvoice() {
+		SqlBudgets.assertAtMost(recorder, 2, "InvoiceAppendService.append (secuencia + INSERT)",
+				() -> transactionTemplate.execute(
+						status -> invoiceAppendService.append(clientId, new Invoice("Nueva", 100L))));
+	}
+
+	@Test
+	void appendingToALoadedClientDoesNotInitializeItsInvoices() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Client client = clientRepository.findById(clientId).orElseThrow();
+			Invoice invoice = invoiceAppendService.append(clientId, new Invoice("Nueva", 100L));
+
+			assertSame(client, invoice.getClient());
+			assertFalse(Hibernate.isInitialized(client.getInvoices()));
+		});
+	}
+
+	@Test
+	void appendingToLoadedInvoicesKeepsThemInSync() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Client client = clientRepository.findOneWithInvoices(clientId).orElseThrow();
+			Invoice invoice = invoiceAppendService.append(clientId, new Invoice("Nueva", 100L));
+
+			assertTrue(client.getInvoices().contains(invoice));
+			assertEquals(EXISTING_INVOICES + 1, client.getInvoices().size());
+		});
+	}
+}
@@ -0,0 +1,55 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.springboot_jpa_relationship.entities.Client;
+import com.app.springboot_jpa_relationship.entities.ClientDetails;
+import com.app.springboot_jpa_relationship.entities.Invoice;
+import com.app.springboot_jpa_relationship.repositories.ClientRepository;
+import com.app.springboot_jpa_relationship.repositories.InvoiceRepository;
+
+/*
+ * Requieren las clases instrumentadas por hibernate-enhance-maven-plugin: sin
+ * instrumentar, cada cliente agrega una consulta de sus detalles y cada
+ * factura la de su cliente.
+ */
+@SpringBootTest(properties = SqlStatementRecorderConfig.DATABASE)
+@ActiveProfiles("test")
+@Import(SqlStatementRecorderConfig.class)
+class LazyToOneSqlBudgetTests {
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private SqlStatementRecorder recorder;
+
+	@BeforeEach
+	void createClientsWithDetailsAndInvoices() {
+		for (int i = 0; i < 5; i++) {
+			Client client = new Client("Fran", "Moras");
+			client.addInvoice(new Invoice("Compras de la casa", 5000L))
+					.addInvoice(new Invoice("Compras de oficina", 8000L));
+			client.setClientDetails(new ClientDetails(true, 5000));
+			clientRepository.save(client);
+		}
+	}
+
+	@Test
+	void loadingInvoicesDoesNotLoadTheirClients() {
+		SqlBudgets.assertAtMost(recorder, 1, "InvoiceRepository.findAll", () -> invoiceRepository.findAll());
+	}
+
+	@Test
+	void loadingClientsDoesNotLoadTheirDetails() {
+		SqlBudgets.assertAtMost(recorder, 1, "ClientRepository.findAll", () -> clientRepository.findAll());
+	}
+}
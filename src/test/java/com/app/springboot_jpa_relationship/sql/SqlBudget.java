@@ -0,0 +1,29 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/*
+ * Número máximo de sentencias SQL que puede ejecutar el método de test (sin
+ * contar @BeforeEach). Los límites por tipo son opcionales; -1 es sin límite.
+ * Si se supera, el test falla con las sentencias agrupadas por forma.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+	int max();
+
+	int selects() default -1;
+
+	int inserts() default -1;
+
+	int updates() default -1;
+
+	int deletes() default -1;
+}
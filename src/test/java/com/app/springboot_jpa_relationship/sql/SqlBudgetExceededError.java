@@ -0,0 +1,17 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import java.util.List;
+
+public class SqlBudgetExceededError extends AssertionError {
+
+	private final List<String> statements;
+
+	public SqlBudgetExceededError(String message, List<String> statements) {
+		super(message);
+		this.statements = List.copyOf(statements);
+	}
+
+	public List<String> getStatements() {
+		return statements;
+	}
+}
@@ -0,0 +1,30 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import java.util.List;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		recorder(context).start();
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		List<String> statements = recorder(context).stop();
+		SqlBudget budget = context.getRequiredTestMethod().getAnnotation(SqlBudget.class);
+		if (budget != null) {
+			SqlBudgets.check(context.getDisplayName(), statements, budget.max(), budget.selects(),
+					budget.inserts(), budget.updates(), budget.deletes());
+		}
+	}
+
+	private static SqlStatementRecorder recorder(ExtensionContext context) {
+		return SpringExtension.getApplicationContext(context).getBean(SqlStatementRecorder.class);
+	}
+}
@@ -0,0 +1,76 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.app.springboot_jpa_relationship.config.SqlStatementCounter;
+import com.app.springboot_jpa_relationship.config.SqlStatementCounter.Type;
+
+/*
+ * Presupuesto de sentencias SQL para una llamada concreta, por ejemplo:
+ *
+ * SqlBudgets.assertAtMost(recorder, 3, "ClientRepository.findOne",
+ *         () -> clientRepository.findOne(1L));
+ */
+public final class SqlBudgets {
+
+	private SqlBudgets() {
+	}
+
+	public static <T> T assertAtMost(SqlStatementRecorder recorder, int max, String description,
+			Supplier<T> call) {
+		recorder.start();
+		T result;
+		List<String> statements;
+		try {
+			result = call.get();
+		} finally {
+			statements = recorder.stop();
+		}
+		check(description, statements, max, -1, -1, -1, -1);
+		return result;
+	}
+
+	static void check(String description, List<String> statements, int max, int selects, int inserts,
+			int updates, int deletes) {
+		StringBuilder violations = new StringBuilder();
+		exceeded(violations, "sentencias", statements.size(), max);
+		exceeded(violations, "SELECT", count(statements, Type.SELECT), selects);
+		exceeded(violations, "INSERT", count(statements, Type.INSERT), inserts);
+		exceeded(violations, "UPDATE", count(statements, Type.UPDATE), updates);
+		exceeded(violations, "DELETE", count(statements, Type.DELETE), deletes);
+		if (violations.isEmpty()) {
+			return;
+		}
+		StringBuilder message = new StringBuilder("Presupuesto SQL excedido en ").append(description)
+				.append(":").append(violations).append("\n");
+		byShape(statements).forEach((shape, count) -> message.append(String.format("%5d x %s%n", count, shape)));
+		throw new SqlBudgetExceededError(message.toString(), statements);
+	}
+
+	private static void exceeded(StringBuilder violations, String label, long actual, int max) {
+		if (max >= 0 && actual > max) {
+			violations.append(" ").append(actual).append(" ").append(label).append(" (máximo ").append(max)
+					.append(")");
+		}
+	}
+
+	private static long count(List<String> statements, Type type) {
+		return statements.stream().filter(sql -> SqlStatementCounter.typeOf(sql) == type).count();
+	}
+
+	/* Sentencias agrupadas por forma normalizada, de la más repetida a la menos */
+	static Map<String, Long> byShape(List<String> statements) {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (String sql : statements) {
+			counts.merge(SqlStatementRecorder.shape(sql), 1L, Long::sum);
+		}
+		Map<String, Long> sorted = new LinkedHashMap<>();
+		counts.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+		return sorted;
+	}
+}
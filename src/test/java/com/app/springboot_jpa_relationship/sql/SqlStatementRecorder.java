@@ -0,0 +1,60 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+ * Inspector de sentencias para los tests: guarda el SQL que prepara Hibernate
+ * en el hilo actual mientras hay una grabación activa y delega en el inspector
+ * de la aplicación (SqlStatementCounter). Las grabaciones se pueden anidar.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+	private final ThreadLocal<Deque<List<String>>> recordings = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private StatementInspector delegate;
+
+	void setDelegate(StatementInspector delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		for (List<String> recording : recordings.get()) {
+			recording.add(sql);
+		}
+		return delegate == null ? sql : delegate.inspect(sql);
+	}
+
+	public void start() {
+		recordings.get().push(new ArrayList<>());
+	}
+
+	public List<String> stop() {
+		Deque<List<String>> active = recordings.get();
+		List<String> recorded = active.isEmpty() ? List.of() : active.pop();
+		if (active.isEmpty()) {
+			recordings.remove();
+		}
+		return recorded;
+	}
+
+	/*
+	 * Forma normalizada de una sentencia: literales y parámetros como "?", listas
+	 * IN de cualquier tamaño como "(?)" y espacios colapsados, para agrupar las
+	 * sentencias que solo difieren en los valores (el típico N+1).
+	 */
+	public static String shape(String sql) {
+		return sql.replaceAll("'(?:[^']|'')*'", "?")
+				.replaceAll("\\b\\d+\\b", "?")
+				.replaceAll("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)", "(?)")
+				.replaceAll("\\s+", " ")
+				.trim()
+				.toLowerCase(Locale.ROOT);
+	}
+}
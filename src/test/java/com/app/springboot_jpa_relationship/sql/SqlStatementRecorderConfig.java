@@ -0,0 +1,37 @@
+package com.app.springboot_jpa_relationship.sql;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@TestConfiguration
+public class SqlStatementRecorderConfig {
+
+	/*
+	 * Los tests que importan esta configuración comparten un contexto distinto
+	 * del de los demás tests y necesitan su propia base de datos.
+	 */
+	public static final String DATABASE = "app.test.database=db_jpa_relationship_sql_test";
+
+	@Bean
+	SqlStatementRecorder sqlStatementRecorder() {
+		return new SqlStatementRecorder();
+	}
+
+	/* Se ejecuta al final para envolver el inspector que ya esté configurado */
+	@Bean
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	HibernatePropertiesCustomizer sqlStatementRecorderCustomizer(SqlStatementRecorder recorder) {
+		return properties -> {
+			Object existing = properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+			if (existing instanceof StatementInspector inspector) {
+				recorder.setDelegate(inspector);
+			}
+			properties.put(AvailableSettings.STATEMENT_INSPECTOR, recorder);
+		};
+	}
+}